@@ -1,11 +1,20 @@
 package me.kmathers.twitchannouncer;
 
 import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.database.AnnouncedStore;
 import me.kmathers.twitchannouncer.database.DatabaseManager;
 import me.kmathers.twitchannouncer.commands.CommandManager;
+import me.kmathers.twitchannouncer.http.HttpClients;
+import me.kmathers.twitchannouncer.tasks.EmbedUpdateQueue;
 import me.kmathers.twitchannouncer.tasks.TwitchStreamChecker;
 import me.kmathers.twitchannouncer.tasks.YouTubeVideoChecker;
-import me.kmathers.twitchannouncer.tasks.TwitchTokenRefresher;
+import me.kmathers.twitchannouncer.twitch.EventSubClient;
+import me.kmathers.twitchannouncer.twitch.HelixDispatcher;
+import me.kmathers.twitchannouncer.twitch.StreamerProfileCache;
+import me.kmathers.twitchannouncer.twitch.TwitchTokenManager;
+import me.kmathers.twitchannouncer.youtube.WebSubReceiver;
+import me.kmathers.twitchannouncer.youtube.YouTubeChannelResolver;
+import me.kmathers.twitchannouncer.youtube.YouTubeQuotaBudget;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
@@ -15,8 +24,7 @@ import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -28,8 +36,17 @@ public class TwitchAnnouncer {
     private final JDA jda;
     private final Config config;
     private final DatabaseManager database;
-    private final Map<String, List<String>> announcedStreams;
+    private final AnnouncedStore announcedStreams;
     private final ScheduledExecutorService scheduler;
+    private final HttpClients httpClients;
+    private final TwitchTokenManager tokenManager;
+    private final HelixDispatcher helixDispatcher;
+    private final StreamerProfileCache profileCache;
+    private final YouTubeQuotaBudget youtubeQuota;
+    private final YouTubeChannelResolver youtubeResolver;
+    private EventSubClient eventSubClient;
+    private EmbedUpdateQueue embedUpdateQueue;
+    private WebSubReceiver webSubReceiver;
 
     public TwitchAnnouncer() throws Exception {
         logger.info("Starting TwitchAnnouncer bot...");
@@ -41,7 +58,15 @@ public class TwitchAnnouncer {
 
         this.database = new DatabaseManager();
         this.announcedStreams = database.loadAnnouncedStreams();
-        this.scheduler = Executors.newScheduledThreadPool(3);
+        this.scheduler = Executors.newScheduledThreadPool(4);
+        this.httpClients = new HttpClients();
+        this.tokenManager = config.getTwitch() != null ? new TwitchTokenManager(config, httpClients.getDefault(), scheduler) : null;
+        this.helixDispatcher = tokenManager != null ? new HelixDispatcher(tokenManager.getHelixClient(), 4) : null;
+        this.profileCache = helixDispatcher != null ? new StreamerProfileCache(helixDispatcher) : null;
+        this.youtubeQuota = config.getYoutube() != null
+            ? new YouTubeQuotaBudget(database, config.getYoutube().getDailyQuota()) : null;
+        this.youtubeResolver = config.getYoutube() != null
+            ? new YouTubeChannelResolver(database, httpClients.getDefault(), config.getYoutube(), youtubeQuota) : null;
 
         this.jda = JDABuilder.createDefault(config.getDiscordToken())
             .enableIntents(
@@ -53,6 +78,7 @@ public class TwitchAnnouncer {
             .setChunkingFilter(ChunkingFilter.ALL)
             .setMemberCachePolicy(MemberCachePolicy.ALL)
             .setActivity(Activity.watching("for streams"))
+            .setHttpClientBuilder(httpClients.newDiscordClientBuilder())
             .build();
 
         jda.awaitReady();
@@ -69,19 +95,57 @@ public class TwitchAnnouncer {
 
     private void startScheduledTasks() {
         if (config.getTwitch() != null) {
+            embedUpdateQueue = new EmbedUpdateQueue(jda);
+            scheduler.scheduleAtFixedRate(embedUpdateQueue, 2, 2, TimeUnit.SECONDS);
+
             TwitchStreamChecker streamChecker = new TwitchStreamChecker(this);
-            scheduler.scheduleAtFixedRate(streamChecker, 0, 1, TimeUnit.MINUTES);
-            logger.info("Started Twitch stream checker (every 1 minute)");
+            if (config.getTwitch().isEventSubEnabled()) {
+                eventSubClient = new EventSubClient(httpClients.getWebSocket(), helixDispatcher, config::getTwitch, scheduler, streamChecker);
+                eventSubClient.start();
+                scheduler.scheduleAtFixedRate(streamChecker, 0, 30, TimeUnit.SECONDS);
+                logger.info("Started Twitch EventSub transport with stream reconciliation (every 5 minutes)");
+            } else {
+                scheduler.scheduleAtFixedRate(streamChecker, 0, 30, TimeUnit.SECONDS);
+                logger.info("Started adaptive Twitch stream checker (every 30 seconds)");
+            }
 
-            TwitchTokenRefresher tokenRefresher = new TwitchTokenRefresher(this);
-            scheduler.scheduleAtFixedRate(tokenRefresher, 0, 24, TimeUnit.HOURS);
-            logger.info("Started Twitch token refresher (every 24 hours)");
+            tokenManager.start();
+            logger.info("Started Twitch token manager (validating every 60 minutes)");
         }
 
         if (config.getYoutube() != null) {
             YouTubeVideoChecker videoChecker = new YouTubeVideoChecker(this);
-            scheduler.scheduleAtFixedRate(videoChecker, 0, 15, TimeUnit.MINUTES);
-            logger.info("Started YouTube video checker (every 15 minutes)");
+            if (config.getYoutube().isWebSubEnabled() && startWebSub(videoChecker)) {
+                logger.info("Started YouTube WebSub receiver; leased channels are reconciled every 60 minutes");
+            }
+            if (config.getYoutube().isFeedMode()) {
+                scheduler.scheduleAtFixedRate(videoChecker, 0, 5, TimeUnit.MINUTES);
+                logger.info("Started YouTube feed checker (every 5 minutes)");
+            } else {
+                scheduler.scheduleAtFixedRate(videoChecker, 0, 15, TimeUnit.MINUTES);
+                logger.info("Started YouTube video checker (every 15 minutes)");
+            }
+
+            scheduler.scheduleAtFixedRate(() -> {
+                try {
+                    youtubeResolver.revalidateStale(20);
+                    youtubeQuota.flush();
+                } catch (Exception e) {
+                    logger.error("Error revalidating YouTube channels", e);
+                }
+            }, 1, 1, TimeUnit.HOURS);
+        }
+    }
+
+    private boolean startWebSub(YouTubeVideoChecker videoChecker) {
+        webSubReceiver = new WebSubReceiver(httpClients.getDefault(), config.getYoutube(), scheduler, videoChecker);
+        try {
+            webSubReceiver.start();
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to start YouTube WebSub receiver, falling back to polling", e);
+            webSubReceiver = null;
+            return false;
         }
     }
 
@@ -97,23 +161,93 @@ public class TwitchAnnouncer {
         return database;
     }
 
-    public Map<String, List<String>> getAnnouncedStreams() {
+    public AnnouncedStore getAnnouncedStreams() {
         return announcedStreams;
     }
 
+    public HttpClients getHttpClients() {
+        return httpClients;
+    }
+
+    public TwitchTokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    public HelixDispatcher getHelixDispatcher() {
+        return helixDispatcher;
+    }
+
+    public StreamerProfileCache getProfileCache() {
+        return profileCache;
+    }
+
+    public YouTubeQuotaBudget getYouTubeQuota() {
+        return youtubeQuota;
+    }
+
+    public YouTubeChannelResolver getYouTubeResolver() {
+        return youtubeResolver;
+    }
+
+    public WebSubReceiver getWebSubReceiver() {
+        return webSubReceiver;
+    }
+
+    public EventSubClient getEventSubClient() {
+        return eventSubClient;
+    }
+
+    public EmbedUpdateQueue getEmbedUpdateQueue() {
+        return embedUpdateQueue;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
     public static long getStartTime() {
         return START_TIME;
     }
 
     public void shutdown() {
         logger.info("Shutting down TwitchAnnouncer...");
+        if (eventSubClient != null) {
+            eventSubClient.stop();
+        }
+        if (webSubReceiver != null) {
+            webSubReceiver.stop();
+        }
         scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Scheduled tasks did not finish within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (helixDispatcher != null) {
+            helixDispatcher.shutdown();
+        }
         jda.shutdown();
+        try {
+            if (!jda.awaitShutdown(Duration.ofSeconds(10))) {
+                logger.warn("JDA did not shut down within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        httpClients.shutdown();
+        database.saveAnnouncedStreams(announcedStreams);
+        if (youtubeQuota != null) {
+            youtubeQuota.flush();
+        }
+        database.close();
     }
 
     public static void main(String[] args) {
         try {
-            new TwitchAnnouncer();
+            TwitchAnnouncer bot = new TwitchAnnouncer();
+            Runtime.getRuntime().addShutdownHook(new Thread(bot::shutdown, "twitchannouncer-shutdown"));
         } catch (Exception e) {
             logger.error("Failed to start TwitchAnnouncer", e);
             System.exit(1);
@@ -1,7 +1,6 @@
 package me.kmathers.twitchannouncer.commands;
 
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
-import me.kmathers.twitchannouncer.database.DatabaseManager;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -101,11 +100,12 @@ public class CommandManager extends ListenerAdapter {
             return;
         }
 
-        DatabaseManager db = bot.getDatabase();
-        String prefix = db.loadPrefix(event.getGuild().getId());
+        String prefix = bot.getDatabase().getPrefix(event.getGuild().getId());
 
         String content = event.getMessage().getContentRaw();
-        if (!content.toLowerCase().startsWith(prefix.toLowerCase() + ",")) {
+        if (content.length() <= prefix.length()
+            || content.charAt(prefix.length()) != ','
+            || !content.regionMatches(true, 0, prefix, 0, prefix.length())) {
             return;
         }
 
@@ -1,6 +1,13 @@
 package me.kmathers.twitchannouncer.commands;
 
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
+import me.kmathers.twitchannouncer.http.CircuitBreaker;
+import me.kmathers.twitchannouncer.http.HttpClients;
+import me.kmathers.twitchannouncer.twitch.EventSubClient;
+import me.kmathers.twitchannouncer.twitch.HelixDispatcher;
+import me.kmathers.twitchannouncer.twitch.TwitchTokenManager;
+import me.kmathers.twitchannouncer.youtube.WebSubReceiver;
+import me.kmathers.twitchannouncer.youtube.YouTubeQuotaBudget;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -89,12 +96,13 @@ public class DebugCommand {
         String dbStatus;
 
         try {
-            prefix = bot.getDatabase().loadPrefix(guild.getId());
+            prefix = bot.getDatabase().getPrefix(guild.getId());
             File dbFile = new File(CONFIG_DB);
             if (dbFile.exists()) {
                 SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                lastWrite = sdf.format(new Date(dbFile.lastModified())) + " UTC";
-                dbStatus = "Connected";
+                long modified = Math.max(dbFile.lastModified(), new File(CONFIG_DB + "-wal").lastModified());
+                lastWrite = sdf.format(new Date(modified)) + " UTC";
+                dbStatus = "Connected | " + bot.getDatabase().getPendingWrites() + " pending writes";
             } else {
                 lastWrite = "N/A";
                 dbStatus = "File not found";
@@ -121,6 +129,42 @@ public class DebugCommand {
         int cacheChannels = guild.getChannels().size();
         String cacheSize = cacheMembers + " members | " + cacheChannels + " channels";
 
+        HttpClients http = bot.getHttpClients();
+        String httpStatus = http.getConnectionCount() + " connections (" + http.getIdleConnectionCount() + " idle)";
+
+        List<String> upstreams = new ArrayList<>();
+        for (CircuitBreaker breaker : http.getBreakers()) {
+            String state = breaker.getState().name();
+            if (breaker.isOpen()) {
+                state += " " + Math.max(1, (breaker.getOpenUntil() - System.currentTimeMillis()) / 1000) + "s";
+            }
+            upstreams.add(breaker.getName() + ": " + state);
+        }
+        String upstreamStatus = String.join("\n", upstreams);
+
+        HelixDispatcher helix = bot.getHelixDispatcher();
+        String helixStatus = helix == null ? "Disabled"
+            : helix.getInFlight() + " in flight | " + helix.getQueueDepth() + " queued | "
+                + helix.getRateLimitRemaining() + "/" + helix.getRateLimitLimit() + " points";
+
+        TwitchTokenManager tokens = bot.getTokenManager();
+        String tokenStatus = tokens == null ? "Disabled"
+            : tokens.getExpiresAt() == 0 ? "Not validated yet"
+            : "Expires in " + Math.max(0, (tokens.getExpiresAt() - System.currentTimeMillis()) / 60000) + "m";
+
+        EventSubClient eventSub = bot.getEventSubClient();
+        String eventSubStatus = eventSub == null ? "Disabled"
+            : (eventSub.isConnected() ? "Connected" : "Disconnected") + " | " + eventSub.getSubscriptionCount() + " broadcasters"
+                + (eventSub.getOverflowCount() > 0 ? " | " + eventSub.getOverflowCount() + " polled" : "");
+
+        WebSubReceiver webSub = bot.getWebSubReceiver();
+        String webSubStatus = webSub == null ? "Disabled"
+            : webSub.getActiveCount() + "/" + webSub.getSubscriptionCount() + " channels leased";
+
+        YouTubeQuotaBudget quota = bot.getYouTubeQuota();
+        String quotaStatus = quota == null ? "Disabled"
+            : quota.getRemaining() + "/" + quota.getDailyLimit() + " units left | " + quota.getPacedAllowance() + " available now";
+
         embed.addField("Bot Uptime", uptimeStr, true);
         embed.addField("Active Commands Loaded", "12", true);
         embed.addField("Guild ID", guild.getId(), true);
@@ -134,6 +178,13 @@ public class DebugCommand {
         embed.addField("Command Cooldowns", "None active", true);
         embed.addField("Cache Size", cacheSize, true);
         embed.addField("Shards", "1", true);
+        embed.addField("Helix Dispatcher", helixStatus, true);
+        embed.addField("HTTP Pool", httpStatus, true);
+        embed.addField("Upstreams", upstreamStatus, true);
+        embed.addField("Twitch Token", tokenStatus, true);
+        embed.addField("EventSub", eventSubStatus, true);
+        embed.addField("YouTube WebSub", webSubStatus, true);
+        embed.addField("YouTube Quota", quotaStatus, true);
         embed.addField("Permissions", permsString, true);
         embed.addField("Environment", osName + " " + osVersion, true);
         embed.addField("CPU Load", "N/A", true);
@@ -1,11 +1,11 @@
 package me.kmathers.twitchannouncer.commands;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
 import me.kmathers.twitchannouncer.config.Config;
 import me.kmathers.twitchannouncer.database.DatabaseManager;
+import me.kmathers.twitchannouncer.twitch.HelixDecoders;
+import me.kmathers.twitchannouncer.twitch.HelixUser;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -31,7 +31,8 @@ public class RegisterCommand {
 
     public RegisterCommand(TwitchAnnouncer bot) {
         this.bot = bot;
-        this.httpClient = new OkHttpClient();
+        this.httpClient = bot.getTokenManager() != null
+            ? bot.getTokenManager().getHelixClient() : bot.getHttpClients().getDefault();
     }
 
     public void execute(SlashCommandInteractionEvent event) {
@@ -88,11 +89,12 @@ public class RegisterCommand {
                 return;
             }
 
-            String body = response.body().string();
-            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
-            JsonArray data = json.getAsJsonArray("data");
+            List<HelixUser> data;
+            try (JsonReader reader = new JsonReader(response.body().charStream())) {
+                data = HelixDecoders.userDetails(reader);
+            }
 
-            if (data.size() == 0) {
+            if (data.isEmpty()) {
                 EmbedBuilder errorEmbed = new EmbedBuilder();
                 errorEmbed.setTitle("Twitch Username Not Found");
                 errorEmbed.setDescription("The username `" + username + "` does not exist on Twitch.");
@@ -103,11 +105,11 @@ public class RegisterCommand {
                 return;
             }
 
-            JsonObject userData = data.get(0).getAsJsonObject();
-            String displayName = userData.get("display_name").getAsString();
-            String profileImageUrl = userData.get("profile_image_url").getAsString();
-            String description = userData.has("description") ? userData.get("description").getAsString() : "No description.";
-            String createdAt = userData.get("created_at").getAsString();
+            HelixUser userData = data.get(0);
+            String displayName = userData.getDisplayName();
+            String profileImageUrl = userData.getProfileImageUrl();
+            String description = userData.getDescription() != null ? userData.getDescription() : "No description.";
+            String createdAt = userData.getCreatedAt();
 
             SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
             SimpleDateFormat outputFormat = new SimpleDateFormat("MMMM dd, yyyy");
@@ -120,16 +122,12 @@ public class RegisterCommand {
                 return;
             }
 
-            List<DatabaseManager.RegisteredUser> users = bot.getDatabase().getRegisteredUsers(primaryId);
-
-            if (users.stream().anyMatch(u -> u.getUsername().equals(username))) {
+            DatabaseManager.RegisteredUser user = new DatabaseManager.RegisteredUser(username, displayName, profileImageUrl, createdFmt);
+            if (!bot.getDatabase().registerTwitch(primaryId, user).join()) {
                 errorCallback.onError("The Twitch username `" + username + "` is already registered for this server.");
                 return;
             }
 
-            users.add(new DatabaseManager.RegisteredUser(username, displayName, profileImageUrl, createdFmt));
-            bot.getDatabase().saveRegisteredUsers(primaryId, users);
-
             EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle(displayName + " has been registered!");
             embed.setDescription(description);
@@ -5,14 +5,17 @@ import me.kmathers.twitchannouncer.database.DatabaseManager;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.*;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class RegisterYouTubeCommand {
+    private static final Logger logger = LoggerFactory.getLogger(RegisterYouTubeCommand.class);
     private final TwitchAnnouncer bot;
 
     public RegisterYouTubeCommand(TwitchAnnouncer bot) {
@@ -51,19 +54,30 @@ public class RegisterYouTubeCommand {
                 return;
             }
 
-            List<DatabaseManager.RegisteredYouTube> channels = bot.getDatabase().getRegisteredYouTubes(primaryId);
-
-            if (channels.stream().anyMatch(c -> c.getHandle().equalsIgnoreCase(handle))) {
+            if (bot.getDatabase().isYouTubeRegistered(primaryId, handle)) {
                 error.onError("The YouTube handle `" + handle + "` is already registered for this server.");
                 return;
             }
 
+            if (bot.getYouTubeResolver() != null) {
+                try {
+                    if (bot.getYouTubeResolver().resolve(handle) == null) {
+                        error.onError("No YouTube channel found for handle `" + handle + "`.");
+                        return;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not resolve YouTube handle {} at registration, will retry on first check: {}", handle, e.getMessage());
+                }
+            }
+
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss 'UTC'")
                 .withZone(ZoneId.of("UTC"));
             String registeredAt = formatter.format(Instant.now());
 
-            channels.add(new DatabaseManager.RegisteredYouTube(handle, registeredAt));
-            bot.getDatabase().saveRegisteredYouTubes(primaryId, channels);
+            if (!bot.getDatabase().registerYouTube(primaryId, new DatabaseManager.RegisteredYouTube(handle, registeredAt)).join()) {
+                error.onError("The YouTube handle `" + handle + "` is already registered for this server.");
+                return;
+            }
 
             EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("YouTube Channel Registered");
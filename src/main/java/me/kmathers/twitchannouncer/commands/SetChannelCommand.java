@@ -60,7 +60,7 @@ public class SetChannelCommand {
                 return;
             }
 
-            bot.getDatabase().setAnnouncementChannel(primaryId, platform, channelId);
+            bot.getDatabase().setAnnouncementChannel(primaryId, platform, channelId).join();
             success.onSuccess("Announcement channel for " + platform + " set to <#" + channelId + ">.");
         } catch (Exception e) {
             error.onError("An error occurred while setting the channel: `" + e.getMessage() + "`");
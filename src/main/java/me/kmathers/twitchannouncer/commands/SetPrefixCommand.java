@@ -21,7 +21,7 @@ public class SetPrefixCommand {
         String newPrefix = event.getOption("prefix").getAsString();
 
         try {
-            bot.getDatabase().setPrefix(event.getGuild().getId(), newPrefix);
+            bot.getDatabase().setPrefix(event.getGuild().getId(), newPrefix).join();
             event.reply("Prefix set to `" + newPrefix + "` for this server.").queue();
         } catch (Exception e) {
             event.reply("Failed to set prefix: " + e.getMessage()).setEphemeral(true).queue();
@@ -35,7 +35,7 @@ public class SetPrefixCommand {
         }
 
         try {
-            bot.getDatabase().setPrefix(event.getGuild().getId(), newPrefix);
+            bot.getDatabase().setPrefix(event.getGuild().getId(), newPrefix).join();
             event.getMessage().reply("Prefix set to `" + newPrefix + "` for this server.").queue();
         } catch (Exception e) {
             event.getMessage().reply("Failed to set prefix: " + e.getMessage()).queue();
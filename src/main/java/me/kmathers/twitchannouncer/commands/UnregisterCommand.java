@@ -1,14 +1,11 @@
 package me.kmathers.twitchannouncer.commands;
 
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
-import me.kmathers.twitchannouncer.database.DatabaseManager;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.awt.*;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class UnregisterCommand {
     private static final String TWITCH_ICON_URL = "https://cdn-icons-png.flaticon.com/512/5968/5968819.png";
@@ -40,18 +37,11 @@ public class UnregisterCommand {
                 return;
             }
 
-            List<DatabaseManager.RegisteredUser> users = bot.getDatabase().getRegisteredUsers(primaryId);
-            List<DatabaseManager.RegisteredUser> newList = users.stream()
-                .filter(u -> !u.getUsername().equals(username))
-                .collect(Collectors.toList());
-
-            if (newList.size() == users.size()) {
+            if (!bot.getDatabase().unregisterTwitch(primaryId, username).join()) {
                 error.onError("No registered Twitch account found for `" + username + "`.");
                 return;
             }
 
-            bot.getDatabase().saveRegisteredUsers(primaryId, newList);
-
             EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("Twitch User Unregistered");
             embed.setDescription("The user `" + username + "` has been removed from this server's registered Twitch accounts.");
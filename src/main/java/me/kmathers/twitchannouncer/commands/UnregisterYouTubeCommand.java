@@ -1,14 +1,11 @@
 package me.kmathers.twitchannouncer.commands;
 
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
-import me.kmathers.twitchannouncer.database.DatabaseManager;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.awt.*;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class UnregisterYouTubeCommand {
     private final TwitchAnnouncer bot;
@@ -48,18 +45,11 @@ public class UnregisterYouTubeCommand {
                 return;
             }
 
-            List<DatabaseManager.RegisteredYouTube> channels = bot.getDatabase().getRegisteredYouTubes(primaryId);
-            List<DatabaseManager.RegisteredYouTube> newList = channels.stream()
-                .filter(c -> !c.getHandle().equalsIgnoreCase(handle))
-                .collect(Collectors.toList());
-
-            if (newList.size() == channels.size()) {
+            if (!bot.getDatabase().unregisterYouTube(primaryId, handle).join()) {
                 error.onError("No registered YouTube handle found for `" + handle + "`.");
                 return;
             }
 
-            bot.getDatabase().saveRegisteredYouTubes(primaryId, newList);
-
             EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("YouTube Channel Unregistered");
             embed.setDescription("`" + handle + "` has been removed from this server's announcements.");
@@ -6,16 +6,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Config {
     private static final Logger logger = LoggerFactory.getLogger(Config.class);
     private static final String TOKEN_FILE = "token.json";
+    private static final String TOKEN_TEMP_FILE = "token.json.tmp";
     private static final Gson gson = new Gson();
 
     private String discordToken;
-    private TwitchConfig twitch;
+    private final AtomicReference<TwitchConfig> twitch = new AtomicReference<>();
     private YouTubeConfig youtube;
 
     public static Config load() {
@@ -27,18 +35,28 @@ public class Config {
 
             if (json.has("twitch")) {
                 JsonObject twitchObj = json.getAsJsonObject("twitch");
-                config.twitch = new TwitchConfig(
+                config.twitch.set(new TwitchConfig(
                     twitchObj.get("CLIENT_ID").getAsString(),
                     twitchObj.get("CLIENT_SECRET").getAsString(),
                     twitchObj.get("ACCESS_TOKEN").getAsString(),
-                    twitchObj.get("REFRESH_TOKEN").getAsString()
-                );
+                    twitchObj.get("REFRESH_TOKEN").getAsString(),
+                    twitchObj.has("EVENTSUB") && twitchObj.get("EVENTSUB").getAsBoolean(),
+                    twitchObj.has("EVENTSUB_WS_URL") ? twitchObj.get("EVENTSUB_WS_URL").getAsString() : TwitchConfig.DEFAULT_EVENTSUB_WS_URL,
+                    twitchObj.has("EVENTSUB_API_URL") ? twitchObj.get("EVENTSUB_API_URL").getAsString() : TwitchConfig.DEFAULT_EVENTSUB_API_URL,
+                    twitchObj.has("SCHEDULE_SEEDING") && twitchObj.get("SCHEDULE_SEEDING").getAsBoolean()
+                ));
             }
 
             if (json.has("youtube")) {
                 JsonObject youtubeObj = json.getAsJsonObject("youtube");
                 config.youtube = new YouTubeConfig(
-                    youtubeObj.get("API_KEY").getAsString()
+                    youtubeObj.get("API_KEY").getAsString(),
+                    youtubeObj.has("MODE") ? youtubeObj.get("MODE").getAsString() : YouTubeConfig.MODE_API,
+                    youtubeObj.has("WEBSUB_CALLBACK_URL") ? youtubeObj.get("WEBSUB_CALLBACK_URL").getAsString() : null,
+                    youtubeObj.has("WEBSUB_PORT") ? youtubeObj.get("WEBSUB_PORT").getAsInt() : YouTubeConfig.DEFAULT_WEBSUB_PORT,
+                    youtubeObj.has("WEBSUB_SECRET") ? youtubeObj.get("WEBSUB_SECRET").getAsString() : null,
+                    youtubeObj.has("WEBSUB_HUB_URL") ? youtubeObj.get("WEBSUB_HUB_URL").getAsString() : YouTubeConfig.DEFAULT_WEBSUB_HUB_URL,
+                    youtubeObj.has("DAILY_QUOTA") ? youtubeObj.get("DAILY_QUOTA").getAsInt() : YouTubeConfig.DEFAULT_DAILY_QUOTA
                 );
             }
 
@@ -49,7 +67,9 @@ public class Config {
         }
     }
 
-    public void saveTwitchTokens(String accessToken, String refreshToken) {
+    public synchronized void saveTwitchTokens(String accessToken, String refreshToken) {
+        twitch.updateAndGet(current -> current.withTokens(accessToken, refreshToken));
+
         try (FileReader reader = new FileReader(TOKEN_FILE)) {
             JsonObject json = gson.fromJson(reader, JsonObject.class);
 
@@ -57,29 +77,34 @@ public class Config {
                 JsonObject twitchObj = json.getAsJsonObject("twitch");
                 twitchObj.addProperty("ACCESS_TOKEN", accessToken);
                 twitchObj.addProperty("REFRESH_TOKEN", refreshToken);
-
-                try (FileWriter writer = new FileWriter(TOKEN_FILE)) {
-                    gson.toJson(json, writer);
-                    this.twitch = new TwitchConfig(
-                        twitch.getClientId(),
-                        twitch.getClientSecret(),
-                        accessToken,
-                        refreshToken
-                    );
-                    logger.info("Successfully refreshed Twitch token.");
-                }
+                writeAtomically(json);
             }
         } catch (IOException e) {
             logger.error("Failed to save Twitch tokens", e);
         }
     }
 
+    private static void writeAtomically(JsonObject json) throws IOException {
+        Path temp = Paths.get(TOKEN_TEMP_FILE);
+        Path target = Paths.get(TOKEN_FILE);
+
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            gson.toJson(json, writer);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     public String getDiscordToken() {
         return discordToken;
     }
 
     public TwitchConfig getTwitch() {
-        return twitch;
+        return twitch.get();
     }
 
     public YouTubeConfig getYoutube() {
@@ -87,16 +112,37 @@ public class Config {
     }
 
     public static class TwitchConfig {
+        public static final String DEFAULT_EVENTSUB_WS_URL = "wss://eventsub.wss.twitch.tv/ws";
+        public static final String DEFAULT_EVENTSUB_API_URL = "https://api.twitch.tv/helix/eventsub/subscriptions";
+
         private final String clientId;
         private final String clientSecret;
         private final String accessToken;
         private final String refreshToken;
+        private final boolean eventSubEnabled;
+        private final String eventSubWsUrl;
+        private final String eventSubApiUrl;
+        private final boolean scheduleSeeding;
 
         public TwitchConfig(String clientId, String clientSecret, String accessToken, String refreshToken) {
+            this(clientId, clientSecret, accessToken, refreshToken, false, DEFAULT_EVENTSUB_WS_URL, DEFAULT_EVENTSUB_API_URL, false);
+        }
+
+        public TwitchConfig(String clientId, String clientSecret, String accessToken, String refreshToken,
+                            boolean eventSubEnabled, String eventSubWsUrl, String eventSubApiUrl, boolean scheduleSeeding) {
             this.clientId = clientId;
             this.clientSecret = clientSecret;
             this.accessToken = accessToken;
             this.refreshToken = refreshToken;
+            this.eventSubEnabled = eventSubEnabled;
+            this.eventSubWsUrl = eventSubWsUrl;
+            this.eventSubApiUrl = eventSubApiUrl;
+            this.scheduleSeeding = scheduleSeeding;
+        }
+
+        public TwitchConfig withTokens(String accessToken, String refreshToken) {
+            return new TwitchConfig(clientId, clientSecret, accessToken, refreshToken,
+                eventSubEnabled, eventSubWsUrl, eventSubApiUrl, scheduleSeeding);
         }
 
         public String getClientId() {
@@ -114,17 +160,88 @@ public class Config {
         public String getRefreshToken() {
             return refreshToken;
         }
+
+        public boolean isEventSubEnabled() {
+            return eventSubEnabled;
+        }
+
+        public String getEventSubWsUrl() {
+            return eventSubWsUrl;
+        }
+
+        public String getEventSubApiUrl() {
+            return eventSubApiUrl;
+        }
+
+        public boolean isScheduleSeeding() {
+            return scheduleSeeding;
+        }
     }
 
     public static class YouTubeConfig {
+        public static final String MODE_API = "api";
+        public static final String MODE_FEED = "feed";
+        public static final String DEFAULT_WEBSUB_HUB_URL = "https://pubsubhubbub.appspot.com/subscribe";
+        public static final int DEFAULT_WEBSUB_PORT = 8081;
+        public static final int DEFAULT_DAILY_QUOTA = 10000;
+
         private final String apiKey;
+        private final String mode;
+        private final String webSubCallbackUrl;
+        private final int webSubPort;
+        private final String webSubSecret;
+        private final String webSubHubUrl;
+        private final int dailyQuota;
 
         public YouTubeConfig(String apiKey) {
+            this(apiKey, MODE_API, null, DEFAULT_WEBSUB_PORT, null, DEFAULT_WEBSUB_HUB_URL, DEFAULT_DAILY_QUOTA);
+        }
+
+        public YouTubeConfig(String apiKey, String mode, String webSubCallbackUrl, int webSubPort,
+                             String webSubSecret, String webSubHubUrl, int dailyQuota) {
             this.apiKey = apiKey;
+            this.mode = mode.toLowerCase();
+            this.webSubCallbackUrl = webSubCallbackUrl;
+            this.webSubPort = webSubPort;
+            this.webSubSecret = webSubSecret;
+            this.webSubHubUrl = webSubHubUrl;
+            this.dailyQuota = dailyQuota;
         }
 
         public String getApiKey() {
             return apiKey;
         }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public boolean isFeedMode() {
+            return MODE_FEED.equals(mode);
+        }
+
+        public boolean isWebSubEnabled() {
+            return webSubCallbackUrl != null;
+        }
+
+        public String getWebSubCallbackUrl() {
+            return webSubCallbackUrl;
+        }
+
+        public int getWebSubPort() {
+            return webSubPort;
+        }
+
+        public String getWebSubSecret() {
+            return webSubSecret;
+        }
+
+        public String getWebSubHubUrl() {
+            return webSubHubUrl;
+        }
+
+        public int getDailyQuota() {
+            return dailyQuota;
+        }
     }
 }
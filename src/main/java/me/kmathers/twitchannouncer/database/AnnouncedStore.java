@@ -0,0 +1,239 @@
+package me.kmathers.twitchannouncer.database;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class AnnouncedStore {
+    public static final long STREAM_TTL = TimeUnit.HOURS.toMillis(6);
+    public static final long VIDEO_TTL = TimeUnit.HOURS.toMillis(48);
+    public static final int MAX_ENTRIES_PER_GUILD = 5000;
+    private static final long TOUCH_PERSIST_THRESHOLD = TimeUnit.HOURS.toMillis(1);
+
+    private final Map<String, GuildEntries> guilds = new ConcurrentHashMap<>();
+    private final Map<String, Item> pending = new ConcurrentHashMap<>();
+
+    public boolean contains(String guildId, String itemId) {
+        GuildEntries entries = guilds.get(guildId);
+        if (entries == null) {
+            return false;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(itemId);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public boolean tryMark(String guildId, String itemId, long ttlMillis) {
+        GuildEntries entries = guildEntries(guildId);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(itemId);
+            if (entry != null && entry.expiresAt > now) {
+                return false;
+            }
+
+            long expiresAt = now + ttlMillis;
+            entries.put(itemId, new Entry(expiresAt, 0));
+            markUpsert(guildId, itemId, expiresAt);
+            return true;
+        }
+    }
+
+    public void add(String guildId, String itemId, long ttlMillis) {
+        GuildEntries entries = guildEntries(guildId);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+        synchronized (entries) {
+            entries.put(itemId, new Entry(expiresAt, 0));
+            markUpsert(guildId, itemId, expiresAt);
+        }
+    }
+
+    void load(String guildId, String itemId, long expiresAt) {
+        GuildEntries entries = guildEntries(guildId);
+        synchronized (entries) {
+            entries.put(itemId, new Entry(expiresAt, expiresAt));
+        }
+    }
+
+    public void touch(String guildId, String itemId, long ttlMillis) {
+        GuildEntries entries = guilds.get(guildId);
+        if (entries == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                return;
+            }
+
+            entry.expiresAt = Math.max(entry.expiresAt, System.currentTimeMillis() + ttlMillis);
+            if (entry.expiresAt - entry.persistedExpiresAt >= TOUCH_PERSIST_THRESHOLD) {
+                markUpsert(guildId, itemId, entry.expiresAt);
+            }
+        }
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (GuildEntries entries : guilds.values()) {
+            synchronized (entries) {
+                Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+                while (it.hasNext()) {
+                    if (it.next().getValue().expiresAt <= now) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public Changes drainChanges() {
+        List<Item> upserts = new ArrayList<>();
+        List<Item> deletes = new ArrayList<>();
+
+        for (Map.Entry<String, Item> change : pending.entrySet()) {
+            Item item = change.getValue();
+            if (!pending.remove(change.getKey(), item)) {
+                continue;
+            }
+
+            if (item.isDeleted()) {
+                deletes.add(item);
+                continue;
+            }
+
+            upserts.add(item);
+            GuildEntries entries = guilds.get(item.guildId);
+            if (entries != null) {
+                synchronized (entries) {
+                    Entry entry = entries.get(item.itemId);
+                    if (entry != null) {
+                        entry.persistedExpiresAt = Math.max(entry.persistedExpiresAt, item.expiresAt);
+                    }
+                }
+            }
+        }
+
+        return new Changes(upserts, deletes);
+    }
+
+    public void requeue(Changes changes) {
+        for (Item item : changes.deletes) {
+            pending.putIfAbsent(key(item.guildId, item.itemId), item);
+        }
+        for (Item item : changes.upserts) {
+            GuildEntries entries = guilds.get(item.guildId);
+            if (entries != null) {
+                synchronized (entries) {
+                    Entry entry = entries.get(item.itemId);
+                    if (entry != null) {
+                        entry.persistedExpiresAt = 0;
+                    }
+                }
+            }
+            pending.putIfAbsent(key(item.guildId, item.itemId), item);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (GuildEntries entries : guilds.values()) {
+            synchronized (entries) {
+                size += entries.size();
+            }
+        }
+        return size;
+    }
+
+    private GuildEntries guildEntries(String guildId) {
+        return guilds.computeIfAbsent(guildId, GuildEntries::new);
+    }
+
+    private void markUpsert(String guildId, String itemId, long expiresAt) {
+        pending.put(key(guildId, itemId), new Item(guildId, itemId, expiresAt));
+    }
+
+    private void markEvicted(String guildId, String itemId) {
+        pending.put(key(guildId, itemId), new Item(guildId, itemId, Item.DELETED));
+    }
+
+    private static String key(String guildId, String itemId) {
+        return guildId + '\u0000' + itemId;
+    }
+
+    private static class Entry {
+        private long expiresAt;
+        private long persistedExpiresAt;
+
+        private Entry(long expiresAt, long persistedExpiresAt) {
+            this.expiresAt = expiresAt;
+            this.persistedExpiresAt = persistedExpiresAt;
+        }
+    }
+
+    private class GuildEntries extends LinkedHashMap<String, Entry> {
+        private final String guildId;
+
+        private GuildEntries(String guildId) {
+            this.guildId = guildId;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > MAX_ENTRIES_PER_GUILD) {
+                markEvicted(guildId, eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public static class Item {
+        private static final long DELETED = -1;
+
+        private final String guildId;
+        private final String itemId;
+        private final long expiresAt;
+
+        public Item(String guildId, String itemId, long expiresAt) {
+            this.guildId = guildId;
+            this.itemId = itemId;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getGuildId() { return guildId; }
+        public String getItemId() { return itemId; }
+        public long getExpiresAt() { return expiresAt; }
+        public boolean isDeleted() { return expiresAt == DELETED; }
+    }
+
+    public static class Changes {
+        private final List<Item> upserts;
+        private final List<Item> deletes;
+
+        public Changes(List<Item> upserts, List<Item> deletes) {
+            this.upserts = upserts;
+            this.deletes = deletes;
+        }
+
+        public List<Item> getUpserts() { return upserts; }
+        public List<Item> getDeletes() { return deletes; }
+        public boolean isEmpty() { return upserts.isEmpty() && deletes.isEmpty(); }
+    }
+}
@@ -0,0 +1,174 @@
+package me.kmathers.twitchannouncer.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    private static final int CACHE_SIZE_KIB = 8192;
+    private static final long MMAP_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_CACHED_STATEMENTS = 64;
+
+    private final PooledConnection writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<PooledConnection> readers;
+    private final List<PooledConnection> all = new ArrayList<>();
+
+    public ConnectionPool(String path, int readerCount) throws SQLException {
+        String url = "jdbc:sqlite:" + path;
+
+        this.writer = open(url, false);
+        try (Statement stmt = writer.getConnection().createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            readers.add(open(url, true));
+        }
+    }
+
+    public <T> T read(Work<T> work) throws SQLException {
+        PooledConnection conn;
+        try {
+            conn = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            return work.apply(conn);
+        } finally {
+            readers.add(conn);
+        }
+    }
+
+    public <T> T write(Work<T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            return work.apply(writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public <T> T transaction(Work<T> work) throws SQLException {
+        return write(conn -> {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.apply(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    public void close() {
+        writeLock.lock();
+        try {
+            for (PooledConnection conn : all) {
+                conn.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private PooledConnection open(String url, boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        config.setCacheSize(-CACHE_SIZE_KIB);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setReadOnly(readOnly);
+
+        Connection connection = config.createConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+        }
+
+        PooledConnection pooled = new PooledConnection(connection);
+        all.add(pooled);
+        return pooled;
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T apply(PooledConnection conn) throws SQLException;
+    }
+
+    public static class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > MAX_CACHED_STATEMENTS) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null || stmt.isClosed()) {
+                stmt = connection.prepareStatement(sql);
+                statements.put(sql, stmt);
+            } else {
+                stmt.clearParameters();
+                stmt.clearBatch();
+            }
+            return stmt;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        private void close() {
+            for (PreparedStatement stmt : statements.values()) {
+                closeQuietly(stmt);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close database connection: {}", e.getMessage());
+            }
+        }
+
+        private static void closeQuietly(PreparedStatement stmt) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.debug("Failed to close cached statement: {}", e.getMessage());
+            }
+        }
+    }
+}
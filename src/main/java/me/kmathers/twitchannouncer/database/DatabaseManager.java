@@ -1,6 +1,9 @@
 package me.kmathers.twitchannouncer.database;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import org.slf4j.Logger;
@@ -8,249 +11,681 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static final String CONFIG_DB = "TwitchAnnouncerConfig.db";
+    private static final int READER_CONNECTIONS = 4;
     private static final Gson gson = new Gson();
+    private static final long ANNOUNCED_PURGE_INTERVAL = 60 * 60 * 1000;
+    private static final int SCHEMA_VERSION = 2;
+    private static final String DEFAULT_PREFIX = "twitchannouncer";
+
+    private final ConnectionPool pool;
+    private final DatabaseWriter writer;
+    private final Map<String, String> prefixes = new ConcurrentHashMap<>();
+    private volatile long lastAnnouncedPurgeAt;
+
+    public DatabaseManager() throws SQLException {
+        this.pool = new ConnectionPool(CONFIG_DB, READER_CONNECTIONS);
+
+        try {
+            pool.write(conn -> {
+                try (Statement stmt = conn.getConnection().createStatement()) {
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS streamerActivity (" +
+                        "login TEXT PRIMARY KEY, firstSeenAt INTEGER, lastLiveAt INTEGER, histogram TEXT)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS announcedItems (" +
+                        "guildID TEXT NOT NULL, itemID TEXT NOT NULL, expiresAt INTEGER NOT NULL, " +
+                        "PRIMARY KEY (guildID, itemID))");
+                    stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_announcedItems_expiresAt ON announcedItems (expiresAt)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS youtubeChannels (" +
+                        "handle TEXT PRIMARY KEY, channelID TEXT NOT NULL, title TEXT, uploadsPlaylistID TEXT NOT NULL, resolvedAt INTEGER NOT NULL)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS youtubeQuota (day TEXT PRIMARY KEY, used INTEGER NOT NULL)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS twitchRegistrations (" +
+                        "primaryID TEXT NOT NULL, username TEXT NOT NULL COLLATE NOCASE, displayName TEXT, " +
+                        "profileImageUrl TEXT, createdAt TEXT, PRIMARY KEY (primaryID, username))");
+                    stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_twitchRegistrations_username ON twitchRegistrations (username)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS youtubeRegistrations (" +
+                        "primaryID TEXT NOT NULL, handle TEXT NOT NULL COLLATE NOCASE, registeredAt TEXT, " +
+                        "PRIMARY KEY (primaryID, handle))");
+                    stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_youtubeRegistrations_handle ON youtubeRegistrations (handle)");
+                }
+                return null;
+            });
+            migrateSchema();
+        } catch (SQLException e) {
+            logger.error("Error initializing database tables", e);
+        }
 
-    public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection("jdbc:sqlite:" + CONFIG_DB);
+        loadPrefixes();
+        this.writer = new DatabaseWriter(pool);
     }
 
-    public Map<String, List<String>> loadAnnouncedStreams() {
-        Map<String, List<String>> announced = new HashMap<>();
+    private void migrateSchema() throws SQLException {
+        pool.transaction(conn -> {
+            int version;
+            try (Statement stmt = conn.getConnection().createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT guildID, announced FROM guildInfo")) {
+            if (version < 1) {
+                migrateLegacyRegistrations(conn);
+            }
+            if (version < 2 && tableExists(conn, "guildInfo")) {
+                try (Statement stmt = conn.getConnection().createStatement()) {
+                    stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_guildInfo_primaryID ON guildInfo (primaryID)");
+                }
+            }
 
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                String guildId = rs.getString("guildID");
-                String jsonData = rs.getString("announced");
+            if (version != SCHEMA_VERSION) {
+                try (Statement stmt = conn.getConnection().createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+                }
+                logger.info("Migrated database schema from version {} to {}", version, SCHEMA_VERSION);
+            }
+            return null;
+        });
+    }
 
-                try {
-                    if (jsonData != null && !jsonData.isEmpty()) {
-                        List<String> streamList = gson.fromJson(jsonData, new TypeToken<List<String>>(){}.getType());
-                        announced.put(guildId, streamList != null ? streamList : new ArrayList<>());
-                    } else {
-                        announced.put(guildId, new ArrayList<>());
+    private void migrateLegacyRegistrations(ConnectionPool.PooledConnection conn) throws SQLException {
+        int users = 0;
+        int channels = 0;
+
+        if (tableExists(conn, "registeredUsers")) {
+            PreparedStatement insertStmt = conn.prepare(
+                "INSERT OR IGNORE INTO twitchRegistrations (primaryID, username, displayName, profileImageUrl, createdAt) " +
+                "VALUES (?, ?, ?, ?, ?)");
+
+            try (ResultSet rs = conn.prepare("SELECT primaryID, registered FROM registeredUsers").executeQuery()) {
+                while (rs.next()) {
+                    String primaryId = rs.getString("primaryID");
+                    String json = rs.getString("registered");
+                    if (json == null || json.isEmpty() || json.equals("{}")) {
+                        continue;
+                    }
+
+                    try {
+                        List<RegisteredUser> registered = gson.fromJson(json, new TypeToken<List<RegisteredUser>>(){}.getType());
+                        for (RegisteredUser user : registered) {
+                            insertStmt.setString(1, primaryId);
+                            insertStmt.setString(2, user.getUsername());
+                            insertStmt.setString(3, user.getDisplayName());
+                            insertStmt.setString(4, user.getProfileImageUrl());
+                            insertStmt.setString(5, user.getCreatedAt());
+                            insertStmt.addBatch();
+                            users++;
+                        }
+                    } catch (JsonParseException e) {
+                        logger.error("JSON decode error for registered users of {}: {}", primaryId, e.getMessage());
                     }
-                } catch (JsonSyntaxException e) {
-                    logger.error("JSON decode error for guild {}: {}", guildId, e.getMessage());
-                    announced.put(guildId, new ArrayList<>());
                 }
             }
-        } catch (SQLException e) {
-            logger.error("Error loading announced streams", e);
+            insertStmt.executeBatch();
         }
 
-        return announced;
-    }
+        if (tableExists(conn, "registeredYoutubes")) {
+            PreparedStatement insertStmt = conn.prepare(
+                "INSERT OR IGNORE INTO youtubeRegistrations (primaryID, handle, registeredAt) VALUES (?, ?, ?)");
 
-    public void saveAnnouncedStreams(Map<String, List<String>> announcedStreams) {
-        try (Connection conn = getConnection()) {
-            for (Map.Entry<String, List<String>> entry : announcedStreams.entrySet()) {
-                String guildId = entry.getKey();
-                String json = gson.toJson(entry.getValue());
+            try (ResultSet rs = conn.prepare("SELECT primaryID, registered FROM registeredYoutubes").executeQuery()) {
+                while (rs.next()) {
+                    String primaryId = rs.getString("primaryID");
+                    String json = rs.getString("registered");
+                    if (json == null || json.isEmpty() || json.equals("[]")) {
+                        continue;
+                    }
 
-                try (PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE guildInfo SET announced = ? WHERE guildID = ?")) {
-                    stmt.setString(1, json);
-                    stmt.setString(2, guildId);
-                    stmt.executeUpdate();
+                    try {
+                        List<RegisteredYouTube> registered = gson.fromJson(json, new TypeToken<List<RegisteredYouTube>>(){}.getType());
+                        for (RegisteredYouTube channel : registered) {
+                            insertStmt.setString(1, primaryId);
+                            insertStmt.setString(2, channel.getHandle());
+                            insertStmt.setString(3, channel.getRegisteredAt());
+                            insertStmt.addBatch();
+                            channels++;
+                        }
+                    } catch (JsonParseException e) {
+                        logger.error("JSON decode error for registered YouTube channels of {}: {}", primaryId, e.getMessage());
+                    }
                 }
             }
-        } catch (SQLException e) {
-            logger.error("Error saving announced streams", e);
+            insertStmt.executeBatch();
+        }
+
+        if (users > 0 || channels > 0) {
+            logger.info("Migrated {} Twitch and {} YouTube registrations to per-row tables", users, channels);
         }
     }
 
-    public String loadPrefix(String guildId) {
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT prefix FROM guildInfo WHERE guildID = ?")) {
+    private static boolean tableExists(ConnectionPool.PooledConnection conn, String table) throws SQLException {
+        PreparedStatement stmt = conn.prepare("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?");
+        stmt.setString(1, table);
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next();
+        }
+    }
 
-            stmt.setString(1, guildId);
-            ResultSet rs = stmt.executeQuery();
+    public CompletableFuture<Integer> flush() {
+        return writer.flush();
+    }
 
-            if (rs.next()) {
-                return rs.getString("prefix");
-            } else {
-                String prefix = "twitchannouncer";
-                try (PreparedStatement insertStmt = conn.prepareStatement(
-                    "INSERT INTO guildInfo(guildID, prefix) VALUES (?, ?)")) {
-                    insertStmt.setString(1, guildId);
-                    insertStmt.setString(2, prefix);
-                    insertStmt.executeUpdate();
+    public int getPendingWrites() {
+        return writer.getPendingCount();
+    }
+
+    public void close() {
+        writer.shutdown();
+        pool.close();
+    }
+
+    public AnnouncedStore loadAnnouncedStreams() {
+        AnnouncedStore announced = new AnnouncedStore();
+
+        try {
+            pool.transaction(conn -> {
+                migrateLegacyAnnounced(conn);
+
+                PreparedStatement purgeStmt = conn.prepare("DELETE FROM announcedItems WHERE expiresAt <= ?");
+                purgeStmt.setLong(1, System.currentTimeMillis());
+                purgeStmt.executeUpdate();
+                lastAnnouncedPurgeAt = System.currentTimeMillis();
+                return null;
+            });
+
+            pool.read(conn -> {
+                PreparedStatement stmt = conn.prepare("SELECT guildID, itemID, expiresAt FROM announcedItems ORDER BY expiresAt");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        announced.load(rs.getString("guildID"), rs.getString("itemID"), rs.getLong("expiresAt"));
+                    }
                 }
-                return prefix;
-            }
+                return null;
+            });
         } catch (SQLException e) {
-            logger.error("Error loading prefix for guild {}", guildId, e);
-            return "twitchannouncer";
+            logger.error("Error loading announced streams", e);
         }
+
+        announced.drainChanges();
+        return announced;
     }
 
-    public void setPrefix(String guildId, String newPrefix) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement checkStmt = conn.prepareStatement("SELECT 1 FROM guildInfo WHERE guildID = ?")) {
+    private void migrateLegacyAnnounced(ConnectionPool.PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare("SELECT 1 FROM announcedItems LIMIT 1").executeQuery()) {
+            if (rs.next()) {
+                return;
+            }
+        }
 
-            checkStmt.setString(1, guildId);
-            ResultSet rs = checkStmt.executeQuery();
+        long legacyExpiry = System.currentTimeMillis() + AnnouncedStore.VIDEO_TTL;
+        int migrated = 0;
 
-            if (rs.next()) {
-                try (PreparedStatement updateStmt = conn.prepareStatement(
-                    "UPDATE guildInfo SET prefix = ? WHERE guildID = ?")) {
-                    updateStmt.setString(1, newPrefix);
-                    updateStmt.setString(2, guildId);
-                    updateStmt.executeUpdate();
-                }
-            } else {
-                try (PreparedStatement insertStmt = conn.prepareStatement(
-                    "INSERT INTO guildInfo (guildID, prefix) VALUES (?, ?)")) {
-                    insertStmt.setString(1, guildId);
-                    insertStmt.setString(2, newPrefix);
-                    insertStmt.executeUpdate();
+        PreparedStatement insertStmt = conn.prepare(
+            "INSERT OR REPLACE INTO announcedItems (guildID, itemID, expiresAt) VALUES (?, ?, ?)");
+
+        try (ResultSet rs = conn.prepare(
+                 "SELECT guildID, announced FROM guildInfo WHERE announced IS NOT NULL AND announced NOT IN ('', '[]')").executeQuery()) {
+            while (rs.next()) {
+                String guildId = rs.getString("guildID");
+                String jsonData = rs.getString("announced");
+
+                try {
+                    JsonElement json = JsonParser.parseString(jsonData);
+                    if (json.isJsonArray()) {
+                        for (JsonElement id : json.getAsJsonArray()) {
+                            insertStmt.setString(1, guildId);
+                            insertStmt.setString(2, id.getAsString());
+                            insertStmt.setLong(3, legacyExpiry);
+                            insertStmt.addBatch();
+                            migrated++;
+                        }
+                    } else if (json.isJsonObject()) {
+                        for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+                            insertStmt.setString(1, guildId);
+                            insertStmt.setString(2, entry.getKey());
+                            insertStmt.setLong(3, entry.getValue().getAsLong());
+                            insertStmt.addBatch();
+                            migrated++;
+                        }
+                    }
+                } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+                    logger.error("JSON decode error for guild {}: {}", guildId, e.getMessage());
                 }
             }
         }
-    }
 
-    public String getPrimaryId(String guildId) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT primaryID FROM guildInfo WHERE guildID = ?")) {
+        insertStmt.executeBatch();
+        conn.prepare("UPDATE guildInfo SET announced = '[]' WHERE announced IS NOT NULL AND announced != '[]'").executeUpdate();
 
-            stmt.setString(1, guildId);
-            ResultSet rs = stmt.executeQuery();
+        if (migrated > 0) {
+            logger.info("Migrated {} announced items from guildInfo.announced", migrated);
+        }
+    }
 
-            if (rs.next()) {
-                return rs.getString("primaryID");
+    public void saveAnnouncedStreams(AnnouncedStore announcedStreams) {
+        AnnouncedFlush flush = new AnnouncedFlush(announcedStreams);
+        writer.submit("announcedItems", flush).whenComplete((count, error) -> {
+            if (error != null) {
+                logger.error("Error saving announced streams", error);
+                flush.requeue();
             }
-            return null;
+        });
+    }
+
+    private void loadPrefixes() {
+        try {
+            pool.read(conn -> {
+                try (ResultSet rs = conn.prepare("SELECT guildID, prefix FROM guildInfo WHERE prefix IS NOT NULL").executeQuery()) {
+                    while (rs.next()) {
+                        prefixes.put(rs.getString("guildID"), rs.getString("prefix"));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.error("Error loading guild prefixes", e);
         }
     }
 
-    public List<RegisteredUser> getRegisteredUsers(String primaryId) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT registered FROM registeredUsers WHERE primaryID = ?")) {
+    public String getPrefix(String guildId) {
+        return prefixes.computeIfAbsent(guildId, k -> DEFAULT_PREFIX);
+    }
+
+    public CompletableFuture<Integer> setPrefix(String guildId, String newPrefix) {
+        prefixes.put(guildId, newPrefix);
+        return writer.submit("prefix:" + guildId, conn -> {
+            PreparedStatement updateStmt = conn.prepare("UPDATE guildInfo SET prefix = ? WHERE guildID = ?");
+            updateStmt.setString(1, newPrefix);
+            updateStmt.setString(2, guildId);
+            int updated = updateStmt.executeUpdate();
+            if (updated > 0) {
+                return updated;
+            }
 
+            PreparedStatement insertStmt = conn.prepare("INSERT INTO guildInfo (guildID, prefix) VALUES (?, ?)");
+            insertStmt.setString(1, guildId);
+            insertStmt.setString(2, newPrefix);
+            return insertStmt.executeUpdate();
+        });
+    }
+
+    public String getPrimaryId(String guildId) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare("SELECT primaryID FROM guildInfo WHERE guildID = ?");
+            stmt.setString(1, guildId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("primaryID") : null;
+            }
+        });
+    }
+
+    public List<RegisteredUser> getRegisteredUsers(String primaryId) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "SELECT username, displayName, profileImageUrl, createdAt FROM twitchRegistrations WHERE primaryID = ? ORDER BY rowid");
             stmt.setString(1, primaryId);
-            ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                String json = rs.getString("registered");
-                if (json != null && !json.isEmpty() && !json.equals("{}")) {
-                    return gson.fromJson(json, new TypeToken<List<RegisteredUser>>(){}.getType());
+            List<RegisteredUser> users = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(new RegisteredUser(rs.getString("username"), rs.getString("displayName"),
+                        rs.getString("profileImageUrl"), rs.getString("createdAt")));
                 }
             }
-            return new ArrayList<>();
-        }
+            return users;
+        });
     }
 
-    public void saveRegisteredUsers(String primaryId, List<RegisteredUser> users) throws SQLException {
-        String json = gson.toJson(users);
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "INSERT INTO registeredUsers (primaryID, registered) VALUES (?, ?) " +
-                 "ON CONFLICT(primaryID) DO UPDATE SET registered = excluded.registered")) {
+    public CompletableFuture<Boolean> registerTwitch(String primaryId, RegisteredUser user) {
+        return writer.submit(null, conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "INSERT INTO twitchRegistrations (primaryID, username, displayName, profileImageUrl, createdAt) " +
+                "VALUES (?, ?, ?, ?, ?) ON CONFLICT(primaryID, username) DO NOTHING");
+            stmt.setString(1, primaryId);
+            stmt.setString(2, user.getUsername());
+            stmt.setString(3, user.getDisplayName());
+            stmt.setString(4, user.getProfileImageUrl());
+            stmt.setString(5, user.getCreatedAt());
+            return stmt.executeUpdate();
+        }).thenApply(count -> count > 0);
+    }
 
+    public CompletableFuture<Boolean> unregisterTwitch(String primaryId, String username) {
+        return writer.submit(null, conn -> {
+            PreparedStatement stmt = conn.prepare("DELETE FROM twitchRegistrations WHERE primaryID = ? AND username = ?");
             stmt.setString(1, primaryId);
-            stmt.setString(2, json);
-            stmt.executeUpdate();
-        }
+            stmt.setString(2, username);
+            return stmt.executeUpdate();
+        }).thenApply(count -> count > 0);
     }
 
-    public List<RegisteredYouTube> getRegisteredYouTubes(String primaryId) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT registered FROM registeredYoutubes WHERE primaryID = ?")) {
+    public List<String> getGuildsForStreamer(String username) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare("SELECT primaryID FROM twitchRegistrations WHERE username = ?");
+            stmt.setString(1, username);
+            return readStrings(stmt);
+        });
+    }
 
+    public List<RegisteredYouTube> getRegisteredYouTubes(String primaryId) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "SELECT handle, registeredAt FROM youtubeRegistrations WHERE primaryID = ? ORDER BY rowid");
             stmt.setString(1, primaryId);
-            ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                String json = rs.getString("registered");
-                if (json != null && !json.isEmpty() && !json.equals("[]")) {
-                    return gson.fromJson(json, new TypeToken<List<RegisteredYouTube>>(){}.getType());
+            List<RegisteredYouTube> channels = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    channels.add(new RegisteredYouTube(rs.getString("handle"), rs.getString("registeredAt")));
                 }
             }
-            return new ArrayList<>();
-        }
+            return channels;
+        });
     }
 
-    public void saveRegisteredYouTubes(String primaryId, List<RegisteredYouTube> channels) throws SQLException {
-        String json = gson.toJson(channels);
+    public CompletableFuture<Boolean> registerYouTube(String primaryId, RegisteredYouTube channel) {
+        return writer.submit(null, conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "INSERT INTO youtubeRegistrations (primaryID, handle, registeredAt) VALUES (?, ?, ?) " +
+                "ON CONFLICT(primaryID, handle) DO NOTHING");
+            stmt.setString(1, primaryId);
+            stmt.setString(2, channel.getHandle());
+            stmt.setString(3, channel.getRegisteredAt());
+            return stmt.executeUpdate();
+        }).thenApply(count -> count > 0);
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "INSERT INTO registeredYoutubes (primaryID, registered) VALUES (?, ?) " +
-                 "ON CONFLICT(primaryID) DO UPDATE SET registered = excluded.registered")) {
+    public CompletableFuture<Boolean> unregisterYouTube(String primaryId, String handle) {
+        return writer.submit(null, conn -> {
+            PreparedStatement stmt = conn.prepare("DELETE FROM youtubeRegistrations WHERE primaryID = ? AND handle = ?");
+            stmt.setString(1, primaryId);
+            stmt.setString(2, handle);
+            return stmt.executeUpdate();
+        }).thenApply(count -> count > 0);
+    }
 
+    public boolean isYouTubeRegistered(String primaryId, String handle) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare("SELECT 1 FROM youtubeRegistrations WHERE primaryID = ? AND handle = ?");
             stmt.setString(1, primaryId);
-            stmt.setString(2, json);
-            stmt.executeUpdate();
+            stmt.setString(2, handle);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        });
+    }
+
+    public List<String> getGuildsForYouTube(String handle) throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare("SELECT primaryID FROM youtubeRegistrations WHERE handle = ?");
+            stmt.setString(1, handle);
+            return readStrings(stmt);
+        });
+    }
+
+    private static List<String> readStrings(PreparedStatement stmt) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
         }
+        return values;
     }
 
     public String getAnnouncementChannel(String primaryId, String platform) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT " + platform + " FROM announcementChannels WHERE primaryID = ?")) {
-
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare("SELECT " + platform + " FROM announcementChannels WHERE primaryID = ?");
             stmt.setString(1, primaryId);
-            ResultSet rs = stmt.executeQuery();
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        });
+    }
 
-            if (rs.next()) {
-                return rs.getString(1);
+    public CompletableFuture<Integer> setAnnouncementChannel(String primaryId, String platform, String channelId) {
+        return writer.submit("announcementChannel:" + primaryId + ":" + platform, conn -> {
+            PreparedStatement checkStmt = conn.prepare("SELECT 1 FROM announcementChannels WHERE primaryID = ?");
+            checkStmt.setString(1, primaryId);
+
+            boolean exists;
+            try (ResultSet rs = checkStmt.executeQuery()) {
+                exists = rs.next();
             }
-            return null;
-        }
+
+            if (exists) {
+                PreparedStatement updateStmt = conn.prepare(
+                    "UPDATE announcementChannels SET " + platform + " = ? WHERE primaryID = ?");
+                updateStmt.setString(1, channelId);
+                updateStmt.setString(2, primaryId);
+                return updateStmt.executeUpdate();
+            }
+
+            PreparedStatement insertStmt = conn.prepare(
+                "INSERT INTO announcementChannels (primaryID, twitch, youtube) VALUES (?, ?, ?)");
+            insertStmt.setString(1, primaryId);
+            insertStmt.setString(2, platform.equals("twitch") ? channelId : null);
+            insertStmt.setString(3, platform.equals("youtube") ? channelId : null);
+            return insertStmt.executeUpdate();
+        });
     }
 
-    public void setAnnouncementChannel(String primaryId, String platform, String channelId) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement checkStmt = conn.prepareStatement("SELECT 1 FROM announcementChannels WHERE primaryID = ?")) {
+    public PollSnapshot loadPollSnapshot() throws SQLException {
+        return pool.read(conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "SELECT 'twitch' AS platform, g.guildID, a.twitch AS channelID, r.username AS name " +
+                "FROM twitchRegistrations r " +
+                "JOIN announcementChannels a ON a.primaryID = r.primaryID " +
+                "JOIN guildInfo g ON g.primaryID = r.primaryID " +
+                "WHERE a.twitch IS NOT NULL " +
+                "UNION ALL " +
+                "SELECT 'youtube' AS platform, g.guildID, a.youtube AS channelID, r.handle AS name " +
+                "FROM youtubeRegistrations r " +
+                "JOIN announcementChannels a ON a.primaryID = r.primaryID " +
+                "JOIN guildInfo g ON g.primaryID = r.primaryID " +
+                "WHERE a.youtube IS NOT NULL");
+
+            PollSnapshot.Builder snapshot = new PollSnapshot.Builder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    snapshot.add(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                }
+            }
+            return snapshot.build();
+        });
+    }
 
-            checkStmt.setString(1, primaryId);
-            ResultSet rs = checkStmt.executeQuery();
+    public Map<String, StreamerActivity> loadStreamerActivity() {
+        Map<String, StreamerActivity> activity = new HashMap<>();
+
+        try {
+            pool.read(conn -> {
+                try (ResultSet rs = conn.prepare("SELECT login, firstSeenAt, lastLiveAt, histogram FROM streamerActivity").executeQuery()) {
+                    while (rs.next()) {
+                        String login = rs.getString("login");
+                        int[] histogram = null;
+
+                        try {
+                            String json = rs.getString("histogram");
+                            if (json != null && !json.isEmpty()) {
+                                histogram = gson.fromJson(json, int[].class);
+                            }
+                        } catch (JsonSyntaxException e) {
+                            logger.error("JSON decode error for streamer activity {}: {}", login, e.getMessage());
+                        }
+
+                        activity.put(login, new StreamerActivity(login, rs.getLong("firstSeenAt"), rs.getLong("lastLiveAt"), histogram));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.error("Error loading streamer activity", e);
+        }
 
-            if (rs.next()) {
-                try (PreparedStatement updateStmt = conn.prepareStatement(
-                    "UPDATE announcementChannels SET " + platform + " = ? WHERE primaryID = ?")) {
-                    updateStmt.setString(1, channelId);
-                    updateStmt.setString(2, primaryId);
-                    updateStmt.executeUpdate();
+        return activity;
+    }
+
+    public void saveStreamerActivity(Collection<StreamerActivity> activity) {
+        for (StreamerActivity entry : activity) {
+            writer.submit("streamerActivity:" + entry.getLogin(), conn -> {
+                PreparedStatement stmt = conn.prepare(
+                    "INSERT INTO streamerActivity (login, firstSeenAt, lastLiveAt, histogram) VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT(login) DO UPDATE SET firstSeenAt = excluded.firstSeenAt, " +
+                    "lastLiveAt = excluded.lastLiveAt, histogram = excluded.histogram");
+                stmt.setString(1, entry.getLogin());
+                stmt.setLong(2, entry.getFirstSeenAt());
+                stmt.setLong(3, entry.getLastLiveAt());
+                stmt.setString(4, gson.toJson(entry.getHistogram()));
+                return stmt.executeUpdate();
+            }).exceptionally(error -> {
+                logger.error("Error saving streamer activity for {}", entry.getLogin(), error);
+                return 0;
+            });
+        }
+    }
+
+    public Map<String, YouTubeChannel> loadYouTubeChannels() {
+        Map<String, YouTubeChannel> channels = new HashMap<>();
+
+        try {
+            pool.read(conn -> {
+                try (ResultSet rs = conn.prepare(
+                         "SELECT handle, channelID, title, uploadsPlaylistID, resolvedAt FROM youtubeChannels").executeQuery()) {
+                    while (rs.next()) {
+                        YouTubeChannel channel = new YouTubeChannel(
+                            rs.getString("handle"),
+                            rs.getString("channelID"),
+                            rs.getString("title"),
+                            rs.getString("uploadsPlaylistID"),
+                            rs.getLong("resolvedAt")
+                        );
+                        channels.put(channel.getHandle(), channel);
+                    }
                 }
-            } else {
-                String twitchId = platform.equals("twitch") ? channelId : null;
-                String youtubeId = platform.equals("youtube") ? channelId : null;
-
-                try (PreparedStatement insertStmt = conn.prepareStatement(
-                    "INSERT INTO announcementChannels (primaryID, twitch, youtube) VALUES (?, ?, ?)")) {
-                    insertStmt.setString(1, primaryId);
-                    insertStmt.setString(2, twitchId);
-                    insertStmt.setString(3, youtubeId);
-                    insertStmt.executeUpdate();
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.error("Error loading YouTube channels", e);
+        }
+
+        return channels;
+    }
+
+    public void saveYouTubeChannel(YouTubeChannel channel) {
+        writer.submit("youtubeChannel:" + channel.getHandle(), conn -> {
+            PreparedStatement stmt = conn.prepare(
+                "INSERT INTO youtubeChannels (handle, channelID, title, uploadsPlaylistID, resolvedAt) VALUES (?, ?, ?, ?, ?) " +
+                "ON CONFLICT(handle) DO UPDATE SET channelID = excluded.channelID, title = excluded.title, " +
+                "uploadsPlaylistID = excluded.uploadsPlaylistID, resolvedAt = excluded.resolvedAt");
+            stmt.setString(1, channel.getHandle());
+            stmt.setString(2, channel.getChannelId());
+            stmt.setString(3, channel.getTitle());
+            stmt.setString(4, channel.getUploadsPlaylistId());
+            stmt.setLong(5, channel.getResolvedAt());
+            return stmt.executeUpdate();
+        }).exceptionally(error -> {
+            logger.error("Failed to persist YouTube channel for {}", channel.getHandle(), error);
+            return 0;
+        });
+    }
+
+    public int loadYouTubeQuotaUsed(String day) {
+        try {
+            return pool.read(conn -> {
+                PreparedStatement stmt = conn.prepare("SELECT used FROM youtubeQuota WHERE day = ?");
+                stmt.setString(1, day);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt("used") : 0;
                 }
-            }
+            });
+        } catch (SQLException e) {
+            logger.error("Error loading YouTube quota usage", e);
+            return 0;
         }
     }
 
-    public List<GuildInfo> getAllGuilds() throws SQLException {
-        List<GuildInfo> guilds = new ArrayList<>();
+    public void saveYouTubeQuotaUsed(String day, int used) {
+        writer.submit("youtubeQuota", conn -> {
+            PreparedStatement upsert = conn.prepare(
+                "INSERT INTO youtubeQuota (day, used) VALUES (?, ?) ON CONFLICT(day) DO UPDATE SET used = excluded.used");
+            upsert.setString(1, day);
+            upsert.setInt(2, used);
+            int updated = upsert.executeUpdate();
+
+            PreparedStatement prune = conn.prepare("DELETE FROM youtubeQuota WHERE day < ?");
+            prune.setString(1, day);
+            prune.executeUpdate();
+            return updated;
+        }).exceptionally(error -> {
+            logger.error("Error saving YouTube quota usage", error);
+            return 0;
+        });
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT guildID, primaryID FROM guildInfo")) {
+    private class AnnouncedFlush implements DatabaseWriter.Write {
+        private final AnnouncedStore announcedStreams;
+        private AnnouncedStore.Changes changes;
+        private boolean purgeDue;
+        private long now;
 
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                guilds.add(new GuildInfo(rs.getString("guildID"), rs.getString("primaryID")));
+        private AnnouncedFlush(AnnouncedStore announcedStreams) {
+            this.announcedStreams = announcedStreams;
+        }
+
+        @Override
+        public int apply(ConnectionPool.PooledConnection conn) throws SQLException {
+            if (changes == null) {
+                announcedStreams.purgeExpired();
+                changes = announcedStreams.drainChanges();
+                now = System.currentTimeMillis();
+                purgeDue = now - lastAnnouncedPurgeAt >= ANNOUNCED_PURGE_INTERVAL;
             }
+
+            if (changes.isEmpty() && !purgeDue) {
+                return 0;
+            }
+
+            PreparedStatement upsertStmt = conn.prepare(
+                "INSERT INTO announcedItems (guildID, itemID, expiresAt) VALUES (?, ?, ?) " +
+                "ON CONFLICT(guildID, itemID) DO UPDATE SET expiresAt = excluded.expiresAt");
+            for (AnnouncedStore.Item item : changes.getUpserts()) {
+                upsertStmt.setString(1, item.getGuildId());
+                upsertStmt.setString(2, item.getItemId());
+                upsertStmt.setLong(3, item.getExpiresAt());
+                upsertStmt.addBatch();
+            }
+            upsertStmt.executeBatch();
+
+            PreparedStatement deleteStmt = conn.prepare("DELETE FROM announcedItems WHERE guildID = ? AND itemID = ?");
+            for (AnnouncedStore.Item item : changes.getDeletes()) {
+                deleteStmt.setString(1, item.getGuildId());
+                deleteStmt.setString(2, item.getItemId());
+                deleteStmt.addBatch();
+            }
+            deleteStmt.executeBatch();
+
+            if (purgeDue) {
+                PreparedStatement purgeStmt = conn.prepare("DELETE FROM announcedItems WHERE expiresAt <= ?");
+                purgeStmt.setLong(1, now);
+                purgeStmt.executeUpdate();
+                lastAnnouncedPurgeAt = now;
+            }
+
+            return changes.getUpserts().size() + changes.getDeletes().size();
         }
 
-        return guilds;
+        private void requeue() {
+            if (changes != null) {
+                announcedStreams.requeue(changes);
+            }
+        }
     }
 
     public static class RegisteredUser {
@@ -285,16 +720,48 @@ public class DatabaseManager {
         public String getRegisteredAt() { return registered_at; }
     }
 
-    public static class GuildInfo {
-        private final String guildId;
-        private final String primaryId;
+    public static class YouTubeChannel {
+        private final String handle;
+        private final String channelId;
+        private final String title;
+        private final String uploadsPlaylistId;
+        private final long resolvedAt;
 
-        public GuildInfo(String guildId, String primaryId) {
-            this.guildId = guildId;
-            this.primaryId = primaryId;
+        public YouTubeChannel(String handle, String channelId, String title, String uploadsPlaylistId, long resolvedAt) {
+            this.handle = handle;
+            this.channelId = channelId;
+            this.title = title;
+            this.uploadsPlaylistId = uploadsPlaylistId;
+            this.resolvedAt = resolvedAt;
         }
 
-        public String getGuildId() { return guildId; }
-        public String getPrimaryId() { return primaryId; }
+        public String getHandle() { return handle; }
+        public String getChannelId() { return channelId; }
+        public String getTitle() { return title; }
+        public String getUploadsPlaylistId() { return uploadsPlaylistId; }
+        public long getResolvedAt() { return resolvedAt; }
+    }
+
+    public static class StreamerActivity {
+        public static final int HOURS_PER_WEEK = 168;
+
+        private final String login;
+        private final long firstSeenAt;
+        private long lastLiveAt;
+        private final int[] histogram;
+
+        public StreamerActivity(String login, long firstSeenAt, long lastLiveAt, int[] histogram) {
+            this.login = login;
+            this.firstSeenAt = firstSeenAt;
+            this.lastLiveAt = lastLiveAt;
+            this.histogram = histogram != null && histogram.length == HOURS_PER_WEEK ? histogram : new int[HOURS_PER_WEEK];
+        }
+
+        public String getLogin() { return login; }
+        public long getFirstSeenAt() { return firstSeenAt; }
+        public long getLastLiveAt() { return lastLiveAt; }
+        public int[] getHistogram() { return histogram; }
+
+        public void setLastLiveAt(long lastLiveAt) { this.lastLiveAt = lastLiveAt; }
     }
 }
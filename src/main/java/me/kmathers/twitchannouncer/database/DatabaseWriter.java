@@ -0,0 +1,202 @@
+package me.kmathers.twitchannouncer.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseWriter {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseWriter.class);
+    private static final long COMMIT_INTERVAL_MILLIS = 50;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final ConnectionPool pool;
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final Thread thread;
+    private long unkeyedCount;
+    private long pendingSince;
+    private boolean flushRequested;
+    private boolean running = true;
+
+    public DatabaseWriter(ConnectionPool pool) {
+        this.pool = pool;
+        this.thread = new Thread(this::run, "database-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public CompletableFuture<Integer> submit(String key, Write write) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        synchronized (pending) {
+            if (!running) {
+                future.completeExceptionally(new SQLException("Database writer has been shut down"));
+                return future;
+            }
+
+            String slot = key != null ? key : "\u0000" + unkeyedCount++;
+            PendingWrite existing = pending.get(slot);
+            if (existing != null) {
+                existing.write = write;
+                existing.futures.add(future);
+            } else {
+                boolean wasEmpty = pending.isEmpty();
+                if (wasEmpty) {
+                    pendingSince = System.currentTimeMillis();
+                }
+                pending.put(slot, new PendingWrite(write, future));
+                if (wasEmpty || pending.size() >= MAX_BATCH_SIZE) {
+                    pending.notifyAll();
+                }
+            }
+        }
+
+        return future;
+    }
+
+    public CompletableFuture<Integer> flush() {
+        CompletableFuture<Integer> future = submit(null, conn -> 0);
+        synchronized (pending) {
+            flushRequested = true;
+            pending.notifyAll();
+        }
+        return future;
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public void shutdown() {
+        synchronized (pending) {
+            running = false;
+            pending.notifyAll();
+        }
+
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("Database writer did not finish flushing within {} ms", SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<PendingWrite> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                synchronized (pending) {
+                    running = false;
+                }
+                batch = nextBatchNow();
+            }
+
+            if (batch.isEmpty()) {
+                return;
+            }
+            commit(batch);
+        }
+    }
+
+    private List<PendingWrite> nextBatch() throws InterruptedException {
+        synchronized (pending) {
+            while (running) {
+                if (!pending.isEmpty()) {
+                    long waited = System.currentTimeMillis() - pendingSince;
+                    if (flushRequested || pending.size() >= MAX_BATCH_SIZE || waited >= COMMIT_INTERVAL_MILLIS) {
+                        break;
+                    }
+                    pending.wait(COMMIT_INTERVAL_MILLIS - waited);
+                } else {
+                    pending.wait();
+                }
+            }
+            return nextBatchNow();
+        }
+    }
+
+    private List<PendingWrite> nextBatchNow() {
+        synchronized (pending) {
+            List<PendingWrite> batch = new ArrayList<>(Math.min(pending.size(), MAX_BATCH_SIZE));
+            Iterator<PendingWrite> it = pending.values().iterator();
+            while (it.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+                batch.add(it.next());
+                it.remove();
+            }
+
+            if (pending.isEmpty()) {
+                flushRequested = false;
+            } else {
+                pendingSince = 0;
+            }
+            return batch;
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        try {
+            int[] results = pool.transaction(conn -> {
+                int[] counts = new int[batch.size()];
+                for (int i = 0; i < batch.size(); i++) {
+                    counts[i] = batch.get(i).write.apply(conn);
+                }
+                return counts;
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(results[i]);
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).fail(e);
+                return;
+            }
+
+            logger.warn("Group commit of {} writes failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                commit(List.of(write));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Write {
+        int apply(ConnectionPool.PooledConnection conn) throws SQLException;
+    }
+
+    private static class PendingWrite {
+        private Write write;
+        private final List<CompletableFuture<Integer>> futures = new ArrayList<>(1);
+
+        private PendingWrite(Write write, CompletableFuture<Integer> future) {
+            this.write = write;
+            this.futures.add(future);
+        }
+
+        private void complete(int result) {
+            for (CompletableFuture<Integer> future : futures) {
+                future.complete(result);
+            }
+        }
+
+        private void fail(Throwable error) {
+            for (CompletableFuture<Integer> future : futures) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+}
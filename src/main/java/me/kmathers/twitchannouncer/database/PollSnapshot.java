@@ -0,0 +1,60 @@
+package me.kmathers.twitchannouncer.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PollSnapshot {
+    public static final String PLATFORM_TWITCH = "twitch";
+    public static final String PLATFORM_YOUTUBE = "youtube";
+
+    private final List<Subscription> twitch;
+    private final List<Subscription> youtube;
+
+    private PollSnapshot(List<Subscription> twitch, List<Subscription> youtube) {
+        this.twitch = Collections.unmodifiableList(twitch);
+        this.youtube = Collections.unmodifiableList(youtube);
+    }
+
+    public List<Subscription> getTwitch() {
+        return twitch;
+    }
+
+    public List<Subscription> getYouTube() {
+        return youtube;
+    }
+
+    static class Builder {
+        private final List<Subscription> twitch = new ArrayList<>();
+        private final List<Subscription> youtube = new ArrayList<>();
+
+        void add(String platform, String guildId, String channelId, String name) {
+            Subscription subscription = new Subscription(guildId, channelId, name);
+            if (PLATFORM_TWITCH.equals(platform)) {
+                twitch.add(subscription);
+            } else if (PLATFORM_YOUTUBE.equals(platform)) {
+                youtube.add(subscription);
+            }
+        }
+
+        PollSnapshot build() {
+            return new PollSnapshot(twitch, youtube);
+        }
+    }
+
+    public static class Subscription {
+        private final String guildId;
+        private final String channelId;
+        private final String name;
+
+        public Subscription(String guildId, String channelId, String name) {
+            this.guildId = guildId;
+            this.channelId = channelId;
+            this.name = name;
+        }
+
+        public String getGuildId() { return guildId; }
+        public String getChannelId() { return channelId; }
+        public String getName() { return name; }
+    }
+}
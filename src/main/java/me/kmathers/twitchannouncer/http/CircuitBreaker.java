@@ -0,0 +1,98 @@
+package me.kmathers.twitchannouncer.http;
+
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long BASE_OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MAX_OPEN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final String name;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpens;
+    private long openUntil;
+    private boolean probeInFlight;
+    private long totalFailures;
+    private long shortCircuited;
+
+    public CircuitBreaker(String name) {
+        this.name = name;
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+
+        shortCircuited++;
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        consecutiveOpens = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized boolean recordFailure() {
+        totalFailures++;
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.OPEN || (state == State.CLOSED && consecutiveFailures < FAILURE_THRESHOLD)) {
+            return false;
+        }
+
+        long openFor = Math.min(MAX_OPEN_MILLIS, BASE_OPEN_MILLIS << Math.min(consecutiveOpens, 4));
+        consecutiveOpens++;
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openFor;
+        return true;
+    }
+
+    public synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() < openUntil;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getOpenUntil() {
+        return openUntil;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTotalFailures() {
+        return totalFailures;
+    }
+
+    public synchronized long getShortCircuited() {
+        return shortCircuited;
+    }
+}
@@ -0,0 +1,16 @@
+package me.kmathers.twitchannouncer.http;
+
+import java.io.IOException;
+
+public class CircuitOpenException extends IOException {
+    private final String upstream;
+
+    public CircuitOpenException(String upstream) {
+        super("Circuit open for " + upstream + ", skipping request");
+        this.upstream = upstream;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+}
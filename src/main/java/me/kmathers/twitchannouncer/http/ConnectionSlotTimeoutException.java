@@ -0,0 +1,16 @@
+package me.kmathers.twitchannouncer.http;
+
+import java.io.InterruptedIOException;
+
+public class ConnectionSlotTimeoutException extends InterruptedIOException {
+    private final String host;
+
+    public ConnectionSlotTimeoutException(String host) {
+        super("Timed out waiting for a connection slot to " + host);
+        this.host = host;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,104 @@
+package me.kmathers.twitchannouncer.http;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class HostConcurrencyLimiter implements Interceptor {
+    private final Map<String, Integer> limits;
+    private final int defaultLimit;
+    private final long acquireTimeoutMillis;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(Map<String, Integer> limits, int defaultLimit, long acquireTimeoutMillis) {
+        this.limits = limits;
+        this.defaultLimit = defaultLimit;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host();
+        Semaphore semaphore = permits.computeIfAbsent(host, k -> new Semaphore(limits.getOrDefault(k, defaultLimit), true));
+
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConnectionSlotTimeoutException(host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection slot to " + host);
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null || response.code() == 101) {
+            semaphore.release();
+            return response;
+        }
+        return response.newBuilder()
+            .body(new PermitReleasingBody(body, semaphore))
+            .build();
+    }
+
+    public int getInFlight(String host) {
+        Semaphore semaphore = permits.get(host);
+        return semaphore == null ? 0 : limits.getOrDefault(host, defaultLimit) - semaphore.availablePermits();
+    }
+
+    private static class PermitReleasingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        private PermitReleasingBody(ResponseBody delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            AtomicBoolean released = new AtomicBoolean();
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package me.kmathers.twitchannouncer.http;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class HttpClients {
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long CONNECT_TIMEOUT_SECONDS = 5;
+    private static final long READ_TIMEOUT_SECONDS = 15;
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+    private static final long CALL_TIMEOUT_SECONDS = 30;
+    private static final int MAX_REQUESTS = 64;
+    private static final int DEFAULT_HOST_LIMIT = 8;
+
+    public static final String UPSTREAM_HELIX = "Helix";
+    public static final String UPSTREAM_OAUTH = "OAuth";
+    public static final String UPSTREAM_YOUTUBE = "YouTube";
+    public static final String UPSTREAM_DISCORD = "Discord";
+
+    private static final Map<String, Integer> HOST_LIMITS = Map.of(
+        "api.twitch.tv", 8,
+        "id.twitch.tv", 2,
+        "www.googleapis.com", 8,
+        "youtube.googleapis.com", 8,
+        "www.youtube.com", 8,
+        "static-cdn.jtvnw.net", 4
+    );
+
+    private final OkHttpClient defaultClient;
+    private final OkHttpClient webSocketClient;
+    private final HostConcurrencyLimiter hostLimiter;
+    private final ResilienceInterceptor resilience;
+
+    public HttpClients() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(DEFAULT_HOST_LIMIT);
+
+        this.resilience = new ResilienceInterceptor()
+            .register(UPSTREAM_HELIX, true, false, "api.twitch.tv")
+            .register(UPSTREAM_OAUTH, true, true, "id.twitch.tv")
+            .register(UPSTREAM_YOUTUBE, true, true, "www.googleapis.com", "youtube.googleapis.com", "www.youtube.com")
+            .register(UPSTREAM_DISCORD, false, false, "discord.com");
+
+        this.hostLimiter = new HostConcurrencyLimiter(HOST_LIMITS, DEFAULT_HOST_LIMIT, TimeUnit.SECONDS.toMillis(CALL_TIMEOUT_SECONDS));
+
+        this.defaultClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .dispatcher(dispatcher)
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .retryOnConnectionFailure(true)
+            .addInterceptor(resilience)
+            .addInterceptor(hostLimiter)
+            .build();
+
+        this.webSocketClient = defaultClient.newBuilder()
+            .readTimeout(0, TimeUnit.SECONDS)
+            .callTimeout(0, TimeUnit.SECONDS)
+            .build();
+    }
+
+    public OkHttpClient getDefault() {
+        return defaultClient;
+    }
+
+    public OkHttpClient getWebSocket() {
+        return webSocketClient;
+    }
+
+    public OkHttpClient.Builder newDiscordClientBuilder() {
+        return new OkHttpClient.Builder()
+            .connectionPool(defaultClient.connectionPool())
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .addInterceptor(resilience);
+    }
+
+    public CircuitBreaker getBreaker(String upstream) {
+        return resilience.getBreaker(upstream);
+    }
+
+    public Collection<CircuitBreaker> getBreakers() {
+        return resilience.getBreakers();
+    }
+
+    public boolean isAvailable(String upstream) {
+        CircuitBreaker breaker = resilience.getBreaker(upstream);
+        return breaker == null || !breaker.isOpen();
+    }
+
+    public int getConnectionCount() {
+        return defaultClient.connectionPool().connectionCount();
+    }
+
+    public int getIdleConnectionCount() {
+        return defaultClient.connectionPool().idleConnectionCount();
+    }
+
+    public int getInFlight(String host) {
+        return hostLimiter.getInFlight(host);
+    }
+
+    public void shutdown() {
+        defaultClient.dispatcher().executorService().shutdown();
+        defaultClient.connectionPool().evictAll();
+    }
+}
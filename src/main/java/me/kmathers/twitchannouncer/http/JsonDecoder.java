@@ -0,0 +1,39 @@
+package me.kmathers.twitchannouncer.http;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@FunctionalInterface
+public interface JsonDecoder<T> {
+    T decode(JsonReader reader) throws IOException;
+
+    static <T> List<T> readArray(JsonReader reader, JsonDecoder<T> element) throws IOException {
+        List<T> values = new ArrayList<>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return values;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T value = element.decode(reader);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        reader.endArray();
+        return values;
+    }
+
+    static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,184 @@
+package me.kmathers.twitchannouncer.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ResilienceInterceptor implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceInterceptor.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final Map<String, Upstream> upstreamsByHost = new LinkedHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new LinkedHashMap<>();
+
+    public ResilienceInterceptor register(String name, boolean enforce, boolean retryRateLimited, String... hosts) {
+        CircuitBreaker breaker = new CircuitBreaker(name);
+        breakers.put(name, breaker);
+        Upstream upstream = new Upstream(breaker, enforce, retryRateLimited);
+        for (String host : hosts) {
+            upstreamsByHost.put(host, upstream);
+        }
+        return this;
+    }
+
+    public CircuitBreaker getBreaker(String name) {
+        return breakers.get(name);
+    }
+
+    public Collection<CircuitBreaker> getBreakers() {
+        return breakers.values();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Upstream upstream = upstreamsByHost.get(request.url().host());
+        if (upstream == null) {
+            return chain.proceed(request);
+        }
+
+        CircuitBreaker breaker = upstream.breaker;
+        if (!upstream.enforce) {
+            return observe(chain, breaker);
+        }
+        if (!breaker.allowRequest()) {
+            throw new CircuitOpenException(breaker.getName());
+        }
+
+        boolean retryable = isIdempotent(request);
+        boolean settled = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Response response;
+                try {
+                    response = chain.proceed(request);
+                } catch (ConnectionSlotTimeoutException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (!retryable || attempt >= MAX_ATTEMPTS || chain.call().isCanceled()) {
+                        recordFailure(breaker, request, e.getMessage());
+                        settled = true;
+                        throw e;
+                    }
+                    sleep(backoff(attempt), request);
+                    continue;
+                }
+
+                int code = response.code();
+                boolean rateLimited = code == 429;
+                boolean serverError = code >= 500 || code == 408;
+
+                if (!serverError && !(rateLimited && upstream.retryRateLimited)) {
+                    breaker.recordSuccess();
+                    settled = true;
+                    return response;
+                }
+
+                long delay = retryAfter(response);
+                if (delay < 0) {
+                    delay = backoff(attempt);
+                }
+
+                if (!retryable || attempt >= MAX_ATTEMPTS || delay > MAX_BACKOFF_MILLIS) {
+                    recordFailure(breaker, request, "HTTP " + code);
+                    settled = true;
+                    return response;
+                }
+
+                response.close();
+                sleep(delay, request);
+            }
+        } finally {
+            if (!settled) {
+                breaker.releaseProbe();
+            }
+        }
+    }
+
+    private static void recordFailure(CircuitBreaker breaker, Request request, String reason) {
+        if (breaker.recordFailure()) {
+            logger.warn("{} upstream failing ({} on {}), opening circuit until {}", breaker.getName(), reason,
+                request.url().encodedPath(), Instant.ofEpochMilli(breaker.getOpenUntil()));
+        }
+    }
+
+    private static Response observe(Chain chain, CircuitBreaker breaker) throws IOException {
+        try {
+            Response response = chain.proceed(chain.request());
+            if (response.code() >= 500) {
+                breaker.recordFailure();
+            } else {
+                breaker.recordSuccess();
+            }
+            return response;
+        } catch (IOException e) {
+            breaker.recordFailure();
+            throw e;
+        }
+    }
+
+    private static boolean isIdempotent(Request request) {
+        String method = request.method();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("PUT") || method.equals("DELETE");
+    }
+
+    private static long backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static long retryAfter(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) {
+            return -1;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(), at).toMillis());
+            } catch (Exception ignored) {
+                return -1;
+            }
+        }
+    }
+
+    private static void sleep(long millis, Request request) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted retrying " + request.url().encodedPath());
+        }
+    }
+
+    private static class Upstream {
+        private final CircuitBreaker breaker;
+        private final boolean enforce;
+        private final boolean retryRateLimited;
+
+        private Upstream(CircuitBreaker breaker, boolean enforce, boolean retryRateLimited) {
+            this.breaker = breaker;
+            this.enforce = enforce;
+            this.retryRateLimited = retryRateLimited;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class EmbedUpdateQueue implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(EmbedUpdateQueue.class);
+    private static final int MAX_EDITS_PER_TICK = 5;
+
+    private final JDA jda;
+    private final Map<String, PendingEdit> pending = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    public EmbedUpdateQueue(JDA jda) {
+        this.jda = jda;
+    }
+
+    public void submit(long channelId, long messageId, MessageEmbed embed) {
+        String key = channelId + ":" + messageId;
+        if (pending.put(key, new PendingEdit(channelId, messageId, embed)) == null) {
+            order.add(key);
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < MAX_EDITS_PER_TICK; i++) {
+                String key = order.poll();
+                if (key == null) {
+                    return;
+                }
+
+                PendingEdit edit = pending.remove(key);
+                if (edit == null) {
+                    continue;
+                }
+
+                TextChannel channel = jda.getTextChannelById(edit.channelId);
+                if (channel == null) {
+                    continue;
+                }
+
+                channel.editMessageEmbedsById(edit.messageId, edit.embed).queue(
+                    null,
+                    error -> logger.debug("Failed to update announcement {} in channel {}: {}", edit.messageId, edit.channelId, error.getMessage())
+                );
+            }
+        } catch (Exception e) {
+            logger.error("Error flushing announcement updates", e);
+        }
+    }
+
+    private static class PendingEdit {
+        private final long channelId;
+        private final long messageId;
+        private final MessageEmbed embed;
+
+        private PendingEdit(long channelId, long messageId, MessageEmbed embed) {
+            this.channelId = channelId;
+            this.messageId = messageId;
+            this.embed = embed;
+        }
+    }
+}
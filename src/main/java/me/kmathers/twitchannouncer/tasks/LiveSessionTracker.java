@@ -0,0 +1,190 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import me.kmathers.twitchannouncer.twitch.HelixStream;
+import me.kmathers.twitchannouncer.twitch.StreamerProfileCache;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.awt.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class LiveSessionTracker {
+    private static final long VIEWER_UPDATE_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final Color LIVE_COLOR = new Color(145, 70, 255);
+    private static final Color ENDED_COLOR = new Color(100, 100, 110);
+
+    private final EmbedUpdateQueue updateQueue;
+    private final Map<String, LiveSession> sessions = new ConcurrentHashMap<>();
+
+    public LiveSessionTracker(EmbedUpdateQueue updateQueue) {
+        this.updateQueue = updateQueue;
+    }
+
+    public MessageEmbed buildLiveEmbed(HelixStream stream, StreamerProfileCache.StreamerProfile profile) {
+        LiveSession session = new LiveSession(stream, profile);
+        return session.render(false);
+    }
+
+    public void attach(HelixStream stream, StreamerProfileCache.StreamerProfile profile, Message message) {
+        String login = stream.getUserLogin().toLowerCase();
+        LiveSession[] replaced = new LiveSession[1];
+        LiveSession session = sessions.compute(login, (k, existing) -> {
+            if (existing != null && existing.streamId.equals(stream.getId())) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return new LiveSession(stream, profile);
+        });
+
+        if (replaced[0] != null) {
+            finish(replaced[0]);
+        }
+
+        synchronized (session) {
+            session.messages.add(new long[]{message.getChannel().getIdLong(), message.getIdLong()});
+        }
+    }
+
+    public void update(Collection<String> polledLogins, Collection<HelixStream> liveStreams) {
+        long now = System.currentTimeMillis();
+        List<String> stillLive = new ArrayList<>();
+
+        for (HelixStream stream : liveStreams) {
+            String login = stream.getUserLogin().toLowerCase();
+            stillLive.add(login);
+
+            LiveSession session = sessions.get(login);
+            if (session == null) {
+                continue;
+            }
+
+            if (!session.streamId.equals(stream.getId())) {
+                end(login);
+                continue;
+            }
+
+            synchronized (session) {
+                boolean detailsChanged = !Objects.equals(session.title, stream.getTitle())
+                    || !Objects.equals(session.gameName, stream.getGameName());
+                boolean viewersChanged = session.viewerCount != stream.getViewerCount();
+
+                session.title = stream.getTitle();
+                session.gameName = stream.getGameName();
+                session.viewerCount = stream.getViewerCount();
+                session.peakViewers = Math.max(session.peakViewers, stream.getViewerCount());
+
+                if (detailsChanged || (viewersChanged && now - session.lastEditAt >= VIEWER_UPDATE_INTERVAL)) {
+                    session.lastEditAt = now;
+                    publish(session, false);
+                }
+            }
+        }
+
+        for (String login : polledLogins) {
+            if (!stillLive.contains(login.toLowerCase())) {
+                end(login);
+            }
+        }
+    }
+
+    public void end(String login) {
+        LiveSession session = sessions.remove(login.toLowerCase());
+        if (session != null) {
+            finish(session);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void finish(LiveSession session) {
+        synchronized (session) {
+            publish(session, true);
+        }
+    }
+
+    private void publish(LiveSession session, boolean ended) {
+        MessageEmbed embed = session.render(ended);
+        for (long[] message : session.messages) {
+            updateQueue.submit(message[0], message[1], embed);
+        }
+    }
+
+    private static class LiveSession {
+        private final String streamId;
+        private final String login;
+        private final String displayName;
+        private final String profileImageUrl;
+        private final String startedAt;
+        private final List<long[]> messages = new ArrayList<>();
+        private String title;
+        private String gameName;
+        private int viewerCount;
+        private int peakViewers;
+        private long lastEditAt = System.currentTimeMillis();
+
+        private LiveSession(HelixStream stream, StreamerProfileCache.StreamerProfile profile) {
+            this.streamId = stream.getId();
+            this.login = stream.getUserLogin();
+            this.displayName = profile != null ? profile.getDisplayName()
+                : stream.getUserName() != null ? stream.getUserName() : stream.getUserLogin();
+            this.profileImageUrl = profile != null ? profile.getProfileImageUrl() : null;
+            this.startedAt = stream.getStartedAt();
+            this.title = stream.getTitle();
+            this.gameName = stream.getGameName();
+            this.viewerCount = stream.getViewerCount();
+            this.peakViewers = stream.getViewerCount();
+        }
+
+        private MessageEmbed render(boolean ended) {
+            EmbedBuilder embed = new EmbedBuilder();
+
+            if (ended) {
+                embed.setTitle("⚫ " + displayName + " was live");
+                embed.setDescription("**" + title + "**\nPlayed: " + gameName + "\n[Channel](https://twitch.tv/" + login + ")");
+                embed.setColor(ENDED_COLOR);
+                embed.addField("Peak Viewers", String.valueOf(peakViewers), true);
+                String duration = formatDuration();
+                if (duration != null) {
+                    embed.addField("Duration", duration, true);
+                }
+                embed.setFooter("Twitch Stream Ended");
+            } else {
+                String previewUrl = "https://static-cdn.jtvnw.net/previews-ttv/live_user_" + login.toLowerCase() + "-1920x1080.jpg";
+                embed.setTitle("🔴 " + displayName + " is live!");
+                embed.setDescription("**" + title + "**\nNow playing: " + gameName + "\n[Watch here](https://twitch.tv/" + login + ")");
+                embed.setColor(LIVE_COLOR);
+                embed.setImage(previewUrl);
+                embed.addField("Viewers", String.valueOf(viewerCount), true);
+                embed.setFooter("Twitch Stream Announcement");
+            }
+
+            if (profileImageUrl != null) {
+                embed.setThumbnail(profileImageUrl);
+            }
+            if (startedAt != null) {
+                embed.setTimestamp(Instant.parse(startedAt));
+            }
+
+            return embed.build();
+        }
+
+        private String formatDuration() {
+            if (startedAt == null) {
+                return null;
+            }
+            Duration duration = Duration.between(Instant.parse(startedAt), Instant.now());
+            return String.format("%dh %dm", duration.toHours(), duration.toMinutesPart());
+        }
+    }
+}
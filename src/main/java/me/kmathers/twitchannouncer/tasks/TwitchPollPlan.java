@@ -0,0 +1,109 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import me.kmathers.twitchannouncer.database.PollSnapshot;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TwitchPollPlan {
+    public static final int MAX_LOGINS_PER_REQUEST = 100;
+
+    private final Map<String, List<Subscriber>> subscribers;
+    private final int subscriptionCount;
+
+    private TwitchPollPlan(Map<String, List<Subscriber>> subscribers, int subscriptionCount) {
+        this.subscribers = subscribers;
+        this.subscriptionCount = subscriptionCount;
+    }
+
+    public static TwitchPollPlan build(PollSnapshot snapshot, JDA jda) {
+        Map<String, List<Subscriber>> subscribers = new LinkedHashMap<>();
+        Map<String, TextChannel> channels = new HashMap<>();
+        int subscriptionCount = 0;
+
+        for (PollSnapshot.Subscription subscription : snapshot.getTwitch()) {
+            String login = subscription.getName();
+            if (login == null || login.isEmpty()) {
+                continue;
+            }
+
+            TextChannel channel = channels.computeIfAbsent(subscription.getChannelId(), jda::getTextChannelById);
+            if (channel == null) {
+                continue;
+            }
+
+            subscribers.computeIfAbsent(login.toLowerCase(), k -> new ArrayList<>())
+                .add(new Subscriber(subscription.getGuildId(), channel));
+            subscriptionCount++;
+        }
+
+        return new TwitchPollPlan(subscribers, subscriptionCount);
+    }
+
+    public TwitchPollPlan restrictTo(Collection<String> logins) {
+        Map<String, List<Subscriber>> restricted = new LinkedHashMap<>();
+        int restrictedCount = 0;
+
+        for (String login : logins) {
+            List<Subscriber> subs = subscribers.get(login.toLowerCase());
+            if (subs != null) {
+                restricted.put(login.toLowerCase(), subs);
+                restrictedCount += subs.size();
+            }
+        }
+
+        return new TwitchPollPlan(restricted, restrictedCount);
+    }
+
+    public Collection<String> getLogins() {
+        return Collections.unmodifiableCollection(subscribers.keySet());
+    }
+
+    public List<List<String>> getBatches() {
+        List<String> logins = new ArrayList<>(subscribers.keySet());
+        List<List<String>> batches = new ArrayList<>();
+
+        for (int i = 0; i < logins.size(); i += MAX_LOGINS_PER_REQUEST) {
+            batches.add(logins.subList(i, Math.min(i + MAX_LOGINS_PER_REQUEST, logins.size())));
+        }
+
+        return batches;
+    }
+
+    public List<Subscriber> getSubscribers(String login) {
+        List<Subscriber> subs = subscribers.get(login.toLowerCase());
+        return subs != null ? subs : Collections.emptyList();
+    }
+
+    public int getLoginCount() {
+        return subscribers.size();
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+    public boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    public static class Subscriber {
+        private final String guildId;
+        private final TextChannel channel;
+
+        public Subscriber(String guildId, TextChannel channel) {
+            this.guildId = guildId;
+            this.channel = channel;
+        }
+
+        public String getGuildId() { return guildId; }
+        public TextChannel getChannel() { return channel; }
+    }
+}
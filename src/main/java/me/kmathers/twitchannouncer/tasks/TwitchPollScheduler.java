@@ -0,0 +1,261 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.database.DatabaseManager;
+import me.kmathers.twitchannouncer.twitch.HelixDispatcher;
+import me.kmathers.twitchannouncer.twitch.HelixException;
+import me.kmathers.twitchannouncer.twitch.HelixStream;
+import me.kmathers.twitchannouncer.twitch.StreamerProfileCache;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class TwitchPollScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(TwitchPollScheduler.class);
+
+    private static final long HOT_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final long LIVE_INTERVAL = TimeUnit.MINUTES.toMillis(2);
+    private static final long ACTIVE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long QUIET_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final long DORMANT_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+
+    private static final long NEW_STREAMER_WINDOW = TimeUnit.DAYS.toMillis(7);
+    private static final long ACTIVE_WINDOW = TimeUnit.DAYS.toMillis(14);
+    private static final long QUIET_WINDOW = TimeUnit.DAYS.toMillis(60);
+    private static final long SCHEDULE_LEAD = TimeUnit.MINUTES.toMillis(10);
+    private static final long SCHEDULE_TAIL = TimeUnit.MINUTES.toMillis(30);
+    private static final long SCHEDULE_REFRESH = TimeUnit.HOURS.toMillis(12);
+    private static final int MAX_SCHEDULE_FETCHES_PER_CYCLE = 10;
+    private static final int HISTOGRAM_DECAY_THRESHOLD = 200;
+
+    private final DatabaseManager database;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public TwitchPollScheduler(DatabaseManager database) {
+        this.database = database;
+        for (DatabaseManager.StreamerActivity activity : database.loadStreamerActivity().values()) {
+            states.put(activity.getLogin(), new State(activity));
+        }
+    }
+
+    public List<String> selectDue(Collection<String> logins, long now) {
+        List<String> due = new ArrayList<>();
+        for (String login : logins) {
+            State state = states.computeIfAbsent(login, k -> new State(new DatabaseManager.StreamerActivity(k, now, 0, null)));
+            if (now - state.lastPolledAt >= intervalFor(state, now)) {
+                due.add(login);
+            }
+        }
+        return due;
+    }
+
+    public void recordResults(Collection<String> polled, Collection<HelixStream> liveStreams, long now) {
+        List<DatabaseManager.StreamerActivity> changed = new ArrayList<>();
+
+        for (String login : polled) {
+            State state = states.get(login);
+            if (state != null) {
+                if (state.lastPolledAt == 0 && state.activity.getLastLiveAt() == 0) {
+                    changed.add(state.activity);
+                }
+                state.lastPolledAt = now;
+                state.live = false;
+            }
+        }
+
+        for (HelixStream stream : liveStreams) {
+            State state = states.get(stream.getUserLogin().toLowerCase());
+            if (state == null) {
+                continue;
+            }
+
+            if (!stream.getId().equals(state.liveStreamId)) {
+                long startedAt = parseStartedAt(stream.getStartedAt(), now);
+                if (startedAt > state.activity.getLastLiveAt()) {
+                    recordGoLive(state.activity, startedAt);
+                }
+                state.liveStreamId = stream.getId();
+            }
+
+            state.live = true;
+            state.activity.setLastLiveAt(Math.max(state.activity.getLastLiveAt(), now));
+            if (!changed.contains(state.activity)) {
+                changed.add(state.activity);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            database.saveStreamerActivity(changed);
+        }
+    }
+
+    public void seedSchedules(Collection<String> logins, StreamerProfileCache profileCache, HelixDispatcher dispatcher,
+                              Config.TwitchConfig twitch, long now) {
+        List<String> stale = new ArrayList<>();
+        for (String login : logins) {
+            State state = states.get(login);
+            if (state != null && now - state.scheduleFetchedAt >= SCHEDULE_REFRESH) {
+                stale.add(login);
+                if (stale.size() >= MAX_SCHEDULE_FETCHES_PER_CYCLE) {
+                    break;
+                }
+            }
+        }
+
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        Map<String, StreamerProfileCache.StreamerProfile> profiles = profileCache.resolveLogins(stale, twitch);
+        for (String login : stale) {
+            State state = states.get(login);
+            state.scheduleFetchedAt = now;
+
+            StreamerProfileCache.StreamerProfile profile = profiles.get(login);
+            if (profile == null) {
+                continue;
+            }
+
+            Request request = new Request.Builder()
+                .url("https://api.twitch.tv/helix/schedule?first=5&broadcaster_id=" + profile.getId())
+                .header("Client-ID", twitch.getClientId())
+                .header("Authorization", "Bearer " + twitch.getAccessToken())
+                .build();
+
+            CompletableFuture<String> response = dispatcher.submit(request);
+            response.whenComplete((body, error) -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    if (!(cause instanceof HelixException && ((HelixException) cause).getCode() == 404)) {
+                        logger.warn("Failed to fetch schedule for {}", login, cause);
+                    }
+                    state.scheduledStarts = new long[0];
+                    return;
+                }
+                state.scheduledStarts = parseSegments(body);
+            });
+        }
+    }
+
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    private long intervalFor(State state, long now) {
+        if (isNearScheduledStart(state, now) || isNearUsualStart(state.activity, now)) {
+            return HOT_INTERVAL;
+        }
+        if (state.live) {
+            return LIVE_INTERVAL;
+        }
+
+        long lastLiveAt = state.activity.getLastLiveAt();
+        if (now - state.activity.getFirstSeenAt() < NEW_STREAMER_WINDOW || now - lastLiveAt < ACTIVE_WINDOW) {
+            return ACTIVE_INTERVAL;
+        }
+        if (now - lastLiveAt < QUIET_WINDOW) {
+            return QUIET_INTERVAL;
+        }
+        return DORMANT_INTERVAL;
+    }
+
+    private static boolean isNearScheduledStart(State state, long now) {
+        for (long start : state.scheduledStarts) {
+            if (now >= start - SCHEDULE_LEAD && now <= start + SCHEDULE_TAIL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNearUsualStart(DatabaseManager.StreamerActivity activity, long now) {
+        int[] histogram = activity.getHistogram();
+        int hour = hourOfWeek(now);
+        int weight = histogram[hour]
+            + histogram[(hour + 1) % DatabaseManager.StreamerActivity.HOURS_PER_WEEK]
+            + histogram[(hour + DatabaseManager.StreamerActivity.HOURS_PER_WEEK - 1) % DatabaseManager.StreamerActivity.HOURS_PER_WEEK];
+
+        if (weight < 2) {
+            return false;
+        }
+
+        int total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        return weight * 10 >= total;
+    }
+
+    private static void recordGoLive(DatabaseManager.StreamerActivity activity, long startedAt) {
+        int[] histogram = activity.getHistogram();
+        histogram[hourOfWeek(startedAt)]++;
+
+        int total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        if (total > HISTOGRAM_DECAY_THRESHOLD) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] /= 2;
+            }
+        }
+    }
+
+    private static int hourOfWeek(long epochMillis) {
+        long hours = TimeUnit.MILLISECONDS.toHours(epochMillis);
+        return (int) ((hours + 72) % DatabaseManager.StreamerActivity.HOURS_PER_WEEK);
+    }
+
+    private static long parseStartedAt(String startedAt, long fallback) {
+        try {
+            return startedAt != null ? Instant.parse(startedAt).toEpochMilli() : fallback;
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    private static long[] parseSegments(String body) {
+        JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+        JsonObject data = json.getAsJsonObject("data");
+        if (data == null || !data.has("segments") || data.get("segments").isJsonNull()) {
+            return new long[0];
+        }
+
+        JsonArray segments = data.getAsJsonArray("segments");
+        List<Long> starts = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            JsonObject segment = segments.get(i).getAsJsonObject();
+            if (segment.has("canceled_until") && !segment.get("canceled_until").isJsonNull()) {
+                continue;
+            }
+            starts.add(parseStartedAt(segment.get("start_time").getAsString(), 0));
+        }
+
+        return starts.stream().mapToLong(Long::longValue).filter(start -> start > 0).toArray();
+    }
+
+    private static class State {
+        private final DatabaseManager.StreamerActivity activity;
+        private volatile long lastPolledAt;
+        private volatile boolean live;
+        private volatile String liveStreamId;
+        private volatile long scheduleFetchedAt;
+        private volatile long[] scheduledStarts = new long[0];
+
+        private State(DatabaseManager.StreamerActivity activity) {
+            this.activity = activity;
+        }
+    }
+}
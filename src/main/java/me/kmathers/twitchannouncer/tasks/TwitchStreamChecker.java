@@ -1,82 +1,188 @@
 package me.kmathers.twitchannouncer.tasks;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
 import me.kmathers.twitchannouncer.config.Config;
-import me.kmathers.twitchannouncer.database.DatabaseManager;
-import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
-import okhttp3.OkHttpClient;
+import me.kmathers.twitchannouncer.database.AnnouncedStore;
+import me.kmathers.twitchannouncer.http.CircuitOpenException;
+import me.kmathers.twitchannouncer.http.HttpClients;
+import me.kmathers.twitchannouncer.twitch.EventSubClient;
+import me.kmathers.twitchannouncer.twitch.HelixDecoders;
+import me.kmathers.twitchannouncer.twitch.HelixDispatcher;
+import me.kmathers.twitchannouncer.twitch.HelixStream;
+import me.kmathers.twitchannouncer.twitch.StreamerProfileCache;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import okhttp3.Request;
-import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.awt.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-public class TwitchStreamChecker implements Runnable {
+public class TwitchStreamChecker implements Runnable, EventSubClient.Listener {
     private static final Logger logger = LoggerFactory.getLogger(TwitchStreamChecker.class);
+    private static final int MAX_ONLINE_CHECK_ATTEMPTS = 4;
+    private static final long ONLINE_CHECK_RETRY_SECONDS = 15;
+    private static final long EVENTSUB_RECONCILE_INTERVAL = TimeUnit.MINUTES.toMillis(5);
     private final TwitchAnnouncer bot;
-    private final OkHttpClient httpClient;
+    private final HelixDispatcher dispatcher;
+    private final StreamerProfileCache profileCache;
+    private final TwitchPollScheduler pollScheduler;
+    private final LiveSessionTracker sessionTracker;
+    private long lastReconciledAt;
 
     public TwitchStreamChecker(TwitchAnnouncer bot) {
         this.bot = bot;
-        this.httpClient = new OkHttpClient();
+        this.dispatcher = bot.getHelixDispatcher();
+        this.profileCache = bot.getProfileCache();
+        this.pollScheduler = new TwitchPollScheduler(bot.getDatabase());
+        this.sessionTracker = new LiveSessionTracker(bot.getEmbedUpdateQueue());
     }
 
     @Override
-    public void run() {
+    public synchronized void run() {
         Config.TwitchConfig twitch = bot.getConfig().getTwitch();
         if (twitch == null) {
             logger.error("Missing Twitch credentials.");
             return;
         }
 
+        if (!bot.getHttpClients().isAvailable(HttpClients.UPSTREAM_HELIX)) {
+            logger.debug("Helix circuit open, skipping Twitch poll");
+            return;
+        }
+
         try {
-            List<DatabaseManager.GuildInfo> guilds = bot.getDatabase().getAllGuilds();
+            TwitchPollPlan plan = TwitchPollPlan.build(bot.getDatabase().loadPollSnapshot(), bot.getJda());
+
+            long now = System.currentTimeMillis();
+            Set<String> pushedLogins = Set.of();
+            EventSubClient eventSub = bot.getEventSubClient();
+            if (eventSub != null) {
+                pushedLogins = syncEventSubSubscriptions(eventSub, plan, twitch);
+                if (now - lastReconciledAt >= EVENTSUB_RECONCILE_INTERVAL) {
+                    lastReconciledAt = now;
+                    pushedLogins = Set.of();
+                }
+            }
 
-            for (DatabaseManager.GuildInfo guildInfo : guilds) {
-                String guildId = guildInfo.getGuildId();
-                String primaryId = guildInfo.getPrimaryId();
+            if (twitch.isScheduleSeeding()) {
+                pollScheduler.seedSchedules(plan.getLogins(), profileCache, dispatcher, twitch, now);
+            }
 
-                String channelId = bot.getDatabase().getAnnouncementChannel(primaryId, "twitch");
-                if (channelId == null) {
-                    continue;
-                }
+            List<String> due = pollScheduler.selectDue(plan.getLogins(), now);
+            due.removeAll(pushedLogins);
+            poll(plan.restrictTo(due), twitch, now);
+        } catch (Exception e) {
+            logger.error("Error checking Twitch streams", e);
+        }
+    }
 
-                TextChannel channel = bot.getJda().getTextChannelById(channelId);
-                if (channel == null) {
-                    continue;
-                }
+    public synchronized Set<String> checkLogins(Collection<String> logins) {
+        Config.TwitchConfig twitch = bot.getConfig().getTwitch();
+        if (twitch == null) {
+            return new HashSet<>();
+        }
 
-                List<DatabaseManager.RegisteredUser> users = bot.getDatabase().getRegisteredUsers(primaryId);
-                if (users.isEmpty()) {
-                    continue;
-                }
+        try {
+            TwitchPollPlan plan = TwitchPollPlan.build(bot.getDatabase().loadPollSnapshot(), bot.getJda()).restrictTo(logins);
+            Set<String> liveLogins = new HashSet<>();
+            for (HelixStream stream : poll(plan, twitch, System.currentTimeMillis())) {
+                liveLogins.add(stream.getUserLogin().toLowerCase());
+            }
+            return liveLogins;
+        } catch (Exception e) {
+            logger.error("Error checking Twitch streams for {}", logins, e);
+            return new HashSet<>();
+        }
+    }
 
-                List<String> usernames = new ArrayList<>();
-                for (DatabaseManager.RegisteredUser user : users) {
-                    usernames.add(user.getUsername());
-                }
+    @Override
+    public void onStreamOnline(String broadcasterId, String login) {
+        logger.info("EventSub reported {} online", login);
+        scheduleOnlineCheck(login.toLowerCase(), 1);
+    }
 
-                for (int i = 0; i < usernames.size(); i += 100) {
-                    List<String> batch = usernames.subList(i, Math.min(i + 100, usernames.size()));
-                    checkStreamsForBatch(batch, guildId, channel, twitch);
-                }
+    @Override
+    public void onStreamOffline(String broadcasterId, String login) {
+        logger.debug("EventSub reported {} offline", login);
+        sessionTracker.end(login);
+    }
+
+    private void scheduleOnlineCheck(String login, int attempt) {
+        long delay = attempt == 1 ? 0 : ONLINE_CHECK_RETRY_SECONDS;
+        bot.getScheduler().schedule(() -> {
+            Set<String> live = checkLogins(List.of(login));
+            if (!live.contains(login) && attempt < MAX_ONLINE_CHECK_ATTEMPTS) {
+                scheduleOnlineCheck(login, attempt + 1);
             }
+        }, delay, TimeUnit.SECONDS);
+    }
 
-            bot.getDatabase().saveAnnouncedStreams(bot.getAnnouncedStreams());
+    private Set<String> syncEventSubSubscriptions(EventSubClient eventSub, TwitchPollPlan plan, Config.TwitchConfig twitch) {
+        Map<String, StreamerProfileCache.StreamerProfile> profiles = profileCache.resolveLogins(plan.getLogins(), twitch);
+        Map<String, String> broadcasters = new HashMap<>();
+        for (StreamerProfileCache.StreamerProfile profile : profiles.values()) {
+            broadcasters.put(profile.getId(), profile.getLogin());
+        }
+        eventSub.syncSubscriptions(broadcasters);
 
-        } catch (Exception e) {
-            logger.error("Error checking Twitch streams", e);
+        Set<String> covered = new HashSet<>();
+        for (Map.Entry<String, StreamerProfileCache.StreamerProfile> entry : profiles.entrySet()) {
+            if (eventSub.isCovered(entry.getValue().getId())) {
+                covered.add(entry.getKey());
+            }
+        }
+        return covered;
+    }
+
+    private List<HelixStream> poll(TwitchPollPlan plan, Config.TwitchConfig twitch, long now) {
+        List<HelixStream> liveStreams = new ArrayList<>();
+        if (plan.isEmpty()) {
+            return liveStreams;
+        }
+
+        List<List<String>> batches = plan.getBatches();
+        logger.debug("Polling {} unique Twitch logins for {} subscriptions in {} batches",
+            plan.getLoginCount(), plan.getSubscriptionCount(), batches.size());
+
+        List<CompletableFuture<List<HelixStream>>> responses = new ArrayList<>();
+        for (List<String> batch : batches) {
+            responses.add(dispatcher.submit(buildStreamsRequest(batch, twitch), HelixDecoders::streams));
+        }
+
+        List<String> polledLogins = new ArrayList<>();
+        for (int i = 0; i < responses.size(); i++) {
+            try {
+                liveStreams.addAll(responses.get(i).join());
+                polledLogins.addAll(batches.get(i));
+            } catch (Exception e) {
+                if (e.getCause() instanceof CircuitOpenException) {
+                    logger.debug("Skipped stream batch: {}", e.getCause().getMessage());
+                } else {
+                    logger.error("Error checking streams for batch", e);
+                }
+            }
         }
+
+        pollScheduler.recordResults(polledLogins, liveStreams, now);
+        sessionTracker.update(polledLogins, liveStreams);
+
+        announceStreams(liveStreams, plan, twitch);
+
+        bot.getDatabase().saveAnnouncedStreams(bot.getAnnouncedStreams());
+
+        return liveStreams;
     }
 
-    private void checkStreamsForBatch(List<String> usernames, String guildId, TextChannel channel, Config.TwitchConfig twitch) {
+    private Request buildStreamsRequest(List<String> usernames, Config.TwitchConfig twitch) {
         StringBuilder queryParams = new StringBuilder();
         for (String username : usernames) {
             if (queryParams.length() > 0) {
@@ -85,80 +191,53 @@ public class TwitchStreamChecker implements Runnable {
             queryParams.append("user_login=").append(username);
         }
 
-        String url = "https://api.twitch.tv/helix/streams?" + queryParams;
+        String url = "https://api.twitch.tv/helix/streams?first=100&" + queryParams;
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
             .url(url)
             .header("Client-ID", twitch.getClientId())
             .header("Authorization", "Bearer " + twitch.getAccessToken())
             .build();
+    }
 
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                logger.error("Twitch API error: {} - {}", response.code(), response.body().string());
-                return;
+    private void announceStreams(List<HelixStream> liveStreams, TwitchPollPlan plan, Config.TwitchConfig twitch) {
+        AnnouncedStore announced = bot.getAnnouncedStreams();
+        List<HelixStream> pending = new ArrayList<>();
+        Set<String> pendingUserIds = new LinkedHashSet<>();
+
+        for (HelixStream stream : liveStreams) {
+            boolean needsAnnouncement = false;
+            for (TwitchPollPlan.Subscriber subscriber : plan.getSubscribers(stream.getUserLogin())) {
+                if (announced.contains(subscriber.getGuildId(), stream.getId())) {
+                    announced.touch(subscriber.getGuildId(), stream.getId(), AnnouncedStore.STREAM_TTL);
+                } else {
+                    needsAnnouncement = true;
+                }
             }
 
-            String body = response.body().string();
-            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
-            JsonArray liveStreams = json.getAsJsonArray("data");
-
-            for (int i = 0; i < liveStreams.size(); i++) {
-                JsonObject stream = liveStreams.get(i).getAsJsonObject();
-                String streamId = stream.get("id").getAsString();
-                String userLogin = stream.get("user_login").getAsString();
-                String title = stream.has("title") ? stream.get("title").getAsString() : "No Title";
-                String gameName = stream.has("game_name") ? stream.get("game_name").getAsString() : "Unknown Game";
-
-                List<String> announced = bot.getAnnouncedStreams().computeIfAbsent(guildId, k -> new ArrayList<>());
-                if (announced.contains(streamId)) {
-                    continue;
-                }
+            if (needsAnnouncement) {
+                pending.add(stream);
+                pendingUserIds.add(stream.getUserId());
+            }
+        }
 
-                String displayName = userLogin;
-                String profileImageUrl = null;
-
-                String userInfoUrl = "https://api.twitch.tv/helix/users?login=" + userLogin;
-                Request userRequest = new Request.Builder()
-                    .url(userInfoUrl)
-                    .header("Client-ID", twitch.getClientId())
-                    .header("Authorization", "Bearer " + twitch.getAccessToken())
-                    .build();
-
-                try (Response userResponse = httpClient.newCall(userRequest).execute()) {
-                    if (userResponse.isSuccessful()) {
-                        JsonObject userJson = JsonParser.parseString(userResponse.body().string()).getAsJsonObject();
-                        JsonArray userData = userJson.getAsJsonArray("data");
-                        if (userData.size() > 0) {
-                            JsonObject userDetails = userData.get(0).getAsJsonObject();
-                            displayName = userDetails.get("display_name").getAsString();
-                            profileImageUrl = userDetails.get("profile_image_url").getAsString();
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("Error fetching user info for {}", userLogin, e);
-                }
+        if (pending.isEmpty()) {
+            return;
+        }
 
-                String previewUrl = "https://static-cdn.jtvnw.net/previews-ttv/live_user_" + userLogin.toLowerCase() + "-1920x1080.jpg";
+        Map<String, StreamerProfileCache.StreamerProfile> profiles = profileCache.resolve(pendingUserIds, twitch);
 
-                EmbedBuilder embed = new EmbedBuilder();
-                embed.setTitle("🔴 " + displayName + " is live!");
-                embed.setDescription("**" + title + "**\nNow playing: " + gameName + "\n[Watch here](https://twitch.tv/" + userLogin + ")");
-                embed.setColor(new Color(145, 70, 255));
-                embed.setImage(previewUrl);
+        for (HelixStream stream : pending) {
+            StreamerProfileCache.StreamerProfile profile = profiles.get(stream.getUserId());
+            MessageEmbed embed = sessionTracker.buildLiveEmbed(stream, profile);
 
-                if (profileImageUrl != null) {
-                    embed.setThumbnail(profileImageUrl);
+            for (TwitchPollPlan.Subscriber subscriber : plan.getSubscribers(stream.getUserLogin())) {
+                if (!announced.tryMark(subscriber.getGuildId(), stream.getId(), AnnouncedStore.STREAM_TTL)) {
+                    continue;
                 }
 
-                embed.setFooter("Twitch Stream Announcement");
-
-                channel.sendMessageEmbeds(embed.build()).queue();
-                announced.add(streamId);
+                subscriber.getChannel().sendMessageEmbeds(embed).queue(message -> sessionTracker.attach(stream, profile, message));
             }
-
-        } catch (Exception e) {
-            logger.error("Error checking streams for batch", e);
         }
     }
 }
@@ -0,0 +1,109 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import me.kmathers.twitchannouncer.database.PollSnapshot;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class YouTubePollPlan {
+    private static final Logger logger = LoggerFactory.getLogger(YouTubePollPlan.class);
+
+    private final Map<String, List<Subscriber>> subscribers;
+    private final int subscriptionCount;
+
+    private YouTubePollPlan(Map<String, List<Subscriber>> subscribers, int subscriptionCount) {
+        this.subscribers = subscribers;
+        this.subscriptionCount = subscriptionCount;
+    }
+
+    public static YouTubePollPlan build(PollSnapshot snapshot, JDA jda) {
+        Map<String, List<Subscriber>> subscribers = new LinkedHashMap<>();
+        Map<String, TextChannel> channels = new HashMap<>();
+        int subscriptionCount = 0;
+
+        for (PollSnapshot.Subscription subscription : snapshot.getYouTube()) {
+            String guildId = subscription.getGuildId();
+            String channelId = subscription.getChannelId();
+
+            if (!channels.containsKey(channelId)) {
+                channels.put(channelId, resolveChannel(jda, guildId, channelId));
+            }
+
+            TextChannel channel = channels.get(channelId);
+            if (channel == null) {
+                continue;
+            }
+
+            String handle = subscription.getName();
+            if (handle == null || !handle.startsWith("@")) {
+                logger.warn("Invalid handle format: {}", handle);
+                continue;
+            }
+
+            subscribers.computeIfAbsent(handle.toLowerCase(), k -> new ArrayList<>())
+                .add(new Subscriber(guildId, channel));
+            subscriptionCount++;
+        }
+
+        return new YouTubePollPlan(subscribers, subscriptionCount);
+    }
+
+    private static TextChannel resolveChannel(JDA jda, String guildId, String channelId) {
+        TextChannel channel = jda.getTextChannelById(channelId);
+        if (channel == null) {
+            Guild guild = jda.getGuildById(guildId);
+            if (guild != null) {
+                channel = guild.getTextChannelById(channelId);
+            }
+        }
+
+        if (channel == null) {
+            logger.warn("Discord channel {} not found for guild {}", channelId, guildId);
+        }
+        return channel;
+    }
+
+    public Collection<String> getHandles() {
+        return Collections.unmodifiableCollection(subscribers.keySet());
+    }
+
+    public List<Subscriber> getSubscribers(String handle) {
+        List<Subscriber> subs = subscribers.get(handle.toLowerCase());
+        return subs != null ? subs : Collections.emptyList();
+    }
+
+    public int getHandleCount() {
+        return subscribers.size();
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+    public boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    public static class Subscriber {
+        private final String guildId;
+        private final TextChannel channel;
+
+        public Subscriber(String guildId, TextChannel channel) {
+            this.guildId = guildId;
+            this.channel = channel;
+        }
+
+        public String getGuildId() { return guildId; }
+        public TextChannel getChannel() { return channel; }
+    }
+}
@@ -0,0 +1,86 @@
+package me.kmathers.twitchannouncer.tasks;
+
+import me.kmathers.twitchannouncer.youtube.YouTubeVideo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class YouTubePollScheduler {
+    private static final long MIN_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    private static final double DEFAULT_UPLOADS_PER_DAY = 0.2;
+    private static final double MAX_UPLOADS_PER_DAY = 10;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private volatile int deferredLastCycle;
+
+    public List<String> selectDue(Collection<String> handles, int maxPolls, long now) {
+        List<String> candidates = new ArrayList<>();
+        for (String handle : handles) {
+            State state = states.computeIfAbsent(handle, k -> new State());
+            if (now - state.lastPolledAt >= MIN_INTERVAL) {
+                candidates.add(handle);
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble((String handle) -> priority(states.get(handle), now)).reversed());
+
+        List<String> due = candidates.size() > maxPolls ? new ArrayList<>(candidates.subList(0, Math.max(0, maxPolls))) : candidates;
+        deferredLastCycle = candidates.size() - due.size();
+        return due;
+    }
+
+    public void recordPoll(String handle, List<YouTubeVideo> videos, long now) {
+        State state = states.computeIfAbsent(handle, k -> new State());
+        state.lastPolledAt = now;
+
+        if (videos == null || videos.size() < 2) {
+            return;
+        }
+
+        long newest = Long.MIN_VALUE;
+        long oldest = Long.MAX_VALUE;
+        for (YouTubeVideo video : videos) {
+            long publishedAt = parsePublishedAt(video.getPublishedAt());
+            if (publishedAt > 0) {
+                newest = Math.max(newest, publishedAt);
+                oldest = Math.min(oldest, publishedAt);
+            }
+        }
+
+        if (newest > oldest) {
+            double spanDays = Math.max(1.0 / 24, (double) (Math.max(newest, now) - oldest) / TimeUnit.DAYS.toMillis(1));
+            state.uploadsPerDay = Math.min(MAX_UPLOADS_PER_DAY, (videos.size() - 1) / spanDays);
+        }
+    }
+
+    public int getDeferredLastCycle() {
+        return deferredLastCycle;
+    }
+
+    private static double priority(State state, long now) {
+        if (state.lastPolledAt == 0) {
+            return Double.MAX_VALUE;
+        }
+        double waitedMinutes = (double) (now - state.lastPolledAt) / TimeUnit.MINUTES.toMillis(1);
+        return waitedMinutes * (1 + state.uploadsPerDay);
+    }
+
+    private static long parsePublishedAt(String publishedAt) {
+        try {
+            return publishedAt != null ? Instant.parse(publishedAt).toEpochMilli() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static class State {
+        private volatile long lastPolledAt;
+        private volatile double uploadsPerDay = DEFAULT_UPLOADS_PER_DAY;
+    }
+}
@@ -1,14 +1,22 @@
 package me.kmathers.twitchannouncer.tasks;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import me.kmathers.twitchannouncer.TwitchAnnouncer;
 import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.database.AnnouncedStore;
 import me.kmathers.twitchannouncer.database.DatabaseManager;
+import me.kmathers.twitchannouncer.http.CircuitOpenException;
+import me.kmathers.twitchannouncer.http.HttpClients;
+import me.kmathers.twitchannouncer.youtube.WebSubReceiver;
+import me.kmathers.twitchannouncer.youtube.YouTubeDecoders;
+import me.kmathers.twitchannouncer.youtube.YouTubeFeedClient;
+import me.kmathers.twitchannouncer.youtube.YouTubeQuotaBudget;
+import me.kmathers.twitchannouncer.youtube.YouTubeVideo;
+import me.kmathers.twitchannouncer.youtube.YouTubeVideoDetails;
+import me.kmathers.twitchannouncer.youtube.YouTubeVideoEnricher;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -16,24 +24,54 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.*;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-public class YouTubeVideoChecker implements Runnable {
+public class YouTubeVideoChecker implements Runnable, WebSubReceiver.Listener {
     private static final Logger logger = LoggerFactory.getLogger(YouTubeVideoChecker.class);
+    private static final Duration ANNOUNCE_WINDOW = Duration.ofHours(24);
+    private static final long CANDIDATE_WINDOW = TimeUnit.DAYS.toMillis(7);
+    private static final long SETTLED_TTL = TimeUnit.DAYS.toMillis(8);
+    private static final long UPCOMING_LEAD = TimeUnit.MINUTES.toMillis(15);
+    private static final long UPCOMING_GIVE_UP = TimeUnit.HOURS.toMillis(12);
+    private static final long LIVE_ANNOUNCE_WINDOW = TimeUnit.HOURS.toMillis(12);
+    private static final String LIVE_KEY_PREFIX = "live:";
+    private static final long WEBSUB_RECONCILE_INTERVAL = TimeUnit.MINUTES.toMillis(60);
+    private static final String PLAYLIST_FIELDS = "items/snippet(publishedAt,title,description,resourceId/videoId)";
     private final TwitchAnnouncer bot;
     private final OkHttpClient httpClient;
+    private final YouTubeFeedClient feedClient;
+    private final YouTubeVideoEnricher enricher;
+    private final YouTubePollScheduler pollScheduler;
+    private final YouTubeQuotaBudget quotaBudget;
+    private final Map<String, UpcomingBroadcast> upcoming = new HashMap<>();
+    private final Map<String, SettledVideo> settled = new HashMap<>();
+    private final Map<String, String> playlistEtags = new ConcurrentHashMap<>();
+    private long lastReconciledAt;
 
     public YouTubeVideoChecker(TwitchAnnouncer bot) {
         this.bot = bot;
-        this.httpClient = new OkHttpClient();
+        this.httpClient = bot.getHttpClients().getDefault();
+        this.feedClient = new YouTubeFeedClient(httpClient);
+        this.quotaBudget = bot.getYouTubeQuota();
+        this.enricher = new YouTubeVideoEnricher(httpClient, bot.getConfig().getYoutube(), quotaBudget);
+        this.pollScheduler = new YouTubePollScheduler();
     }
 
     @Override
-    public void run() {
+    public synchronized void run() {
         Config.YouTubeConfig youtube = bot.getConfig().getYoutube();
         if (youtube == null) {
             logger.error("Missing YouTube API key.");
@@ -41,142 +79,432 @@ public class YouTubeVideoChecker implements Runnable {
         }
 
         try {
-            List<DatabaseManager.GuildInfo> guilds = bot.getDatabase().getAllGuilds();
+            YouTubePollPlan plan = YouTubePollPlan.build(bot.getDatabase().loadPollSnapshot(), bot.getJda());
+            List<String> channelIds = new ArrayList<>();
+            List<Candidate> candidates = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            WebSubReceiver webSub = bot.getWebSubReceiver();
+
+            Collection<String> pollable = plan.getHandles();
+            if (webSub != null) {
+                if (now - lastReconciledAt >= WEBSUB_RECONCILE_INTERVAL) {
+                    lastReconciledAt = now;
+                } else {
+                    pollable = new ArrayList<>();
+                    for (String handle : plan.getHandles()) {
+                        DatabaseManager.YouTubeChannel channel = bot.getYouTubeResolver().getCached(handle);
+                        if (channel == null || !webSub.isLeased(channel.getChannelId())) {
+                            pollable.add(handle);
+                        }
+                    }
+                }
+            }
+
+            Set<String> due = new HashSet<>(youtube.isFeedMode() ? pollable
+                : pollScheduler.selectDue(pollable, playlistAllowance(), now));
 
-            for (DatabaseManager.GuildInfo guildInfo : guilds) {
-                String guildId = guildInfo.getGuildId();
-                String primaryId = guildInfo.getPrimaryId();
+            logger.debug("Checking {} of {} YouTube channels for {} subscriptions ({} mode)",
+                due.size(), plan.getHandleCount(), plan.getSubscriptionCount(), youtube.getMode());
 
-                String channelId = bot.getDatabase().getAnnouncementChannel(primaryId, "youtube");
-                if (channelId == null) {
+            for (String handle : plan.getHandles()) {
+                DatabaseManager.YouTubeChannel channel = resolveChannel(handle);
+                if (channel == null) {
                     continue;
                 }
 
-                TextChannel discordChannel = bot.getJda().getTextChannelById(channelId);
-                if (discordChannel == null) {
-                    Guild guild = bot.getJda().getGuildById(guildId);
-                    if (guild != null) {
-                        discordChannel = guild.getTextChannelById(channelId);
-                    }
+                channelIds.add(channel.getChannelId());
+                if (due.contains(handle) && youtubeAvailable()) {
+                    List<YouTubeVideo> videos = checkYouTubeChannel(channel, youtube, now);
+                    addCandidates(candidates, channel, videos, plan.getSubscribers(handle), now);
                 }
+            }
 
-                if (discordChannel == null) {
-                    logger.warn("Discord channel {} not found for guild {}", channelId, guildId);
-                    continue;
-                }
+            processCandidates(candidates, plan, now);
 
-                List<DatabaseManager.RegisteredYouTube> channels = bot.getDatabase().getRegisteredYouTubes(primaryId);
-                if (channels.isEmpty()) {
-                    continue;
-                }
+            bot.getDatabase().saveAnnouncedStreams(bot.getAnnouncedStreams());
+            quotaBudget.flush();
 
-                for (DatabaseManager.RegisteredYouTube ytChannel : channels) {
-                    String handle = ytChannel.getHandle();
-                    if (!handle.startsWith("@")) {
-                        logger.warn("Invalid handle format: {}", handle);
-                        continue;
-                    }
+            if (!youtube.isFeedMode() && pollScheduler.getDeferredLastCycle() > 0) {
+                logger.info("YouTube quota pacing deferred {} channels ({} of {} units left today)",
+                    pollScheduler.getDeferredLastCycle(), quotaBudget.getRemaining(), quotaBudget.getDailyLimit());
+            }
 
-                    checkYouTubeChannel(handle, guildId, discordChannel, youtube);
-                }
+            if (webSub != null) {
+                webSub.syncSubscriptions(channelIds);
             }
 
-            bot.getDatabase().saveAnnouncedStreams(bot.getAnnouncedStreams());
+            if (youtube.isFeedMode()) {
+                logger.debug("YouTube feeds: {} fetched, {} not modified", feedClient.getFetchedCount(), feedClient.getNotModifiedCount());
+            }
 
         } catch (Exception e) {
             logger.error("Error checking YouTube videos", e);
         }
     }
 
-    private void checkYouTubeChannel(String handle, String guildId, TextChannel discordChannel, Config.YouTubeConfig youtube) {
-        String handleName = handle.substring(1);
-        String resolveUrl = "https://www.googleapis.com/youtube/v3/channels?part=id,snippet&forHandle=" + handleName + "&key=" + youtube.getApiKey();
+    @Override
+    public synchronized void onVideos(String channelId, List<YouTubeVideo> videos) {
+        try {
+            YouTubePollPlan plan = YouTubePollPlan.build(bot.getDatabase().loadPollSnapshot(), bot.getJda());
+            List<Candidate> candidates = new ArrayList<>();
+            long now = System.currentTimeMillis();
+
+            for (String handle : plan.getHandles()) {
+                DatabaseManager.YouTubeChannel channel = bot.getYouTubeResolver().getCached(handle);
+                if (channel != null && channelId.equals(channel.getChannelId())) {
+                    addCandidates(candidates, channel, videos, plan.getSubscribers(handle), now);
+                }
+            }
+
+            processCandidates(candidates, plan, now);
+
+            bot.getDatabase().saveAnnouncedStreams(bot.getAnnouncedStreams());
+            quotaBudget.flush();
+        } catch (Exception e) {
+            logger.error("Error announcing pushed YouTube videos for channel {}", channelId, e);
+        }
+    }
+
+    private boolean youtubeAvailable() {
+        if (bot.getHttpClients().isAvailable(HttpClients.UPSTREAM_YOUTUBE)) {
+            return true;
+        }
+        logger.debug("YouTube circuit open, deferring channel checks");
+        return false;
+    }
+
+    private int playlistAllowance() {
+        int allowance = quotaBudget.getPacedAllowance();
+        int enrichmentReserve = allowance / YouTubeVideoEnricher.MAX_IDS_PER_REQUEST + YouTubeQuotaBudget.VIDEOS_LIST_COST;
+        return Math.max(0, allowance - enrichmentReserve) / YouTubeQuotaBudget.PLAYLIST_ITEMS_LIST_COST;
+    }
+
+    private DatabaseManager.YouTubeChannel resolveChannel(String handle) {
+        try {
+            DatabaseManager.YouTubeChannel channel = bot.getYouTubeResolver().resolve(handle);
+            if (channel == null) {
+                logger.error("No channel found for handle {}", handle);
+            }
+            return channel;
+        } catch (CircuitOpenException e) {
+            return bot.getYouTubeResolver().getCached(handle);
+        } catch (Exception e) {
+            logger.error("Error resolving YouTube handle {}", handle, e);
+            return null;
+        }
+    }
 
+    private List<YouTubeVideo> checkYouTubeChannel(DatabaseManager.YouTubeChannel channel, Config.YouTubeConfig youtube, long now) {
         try {
-            Request resolveRequest = new Request.Builder().url(resolveUrl).build();
+            List<YouTubeVideo> videos = youtube.isFeedMode()
+                ? feedClient.fetch(channel.getChannelId())
+                : fetchUploads(channel, youtube);
+            if (videos != null) {
+                pollScheduler.recordPoll(channel.getHandle(), videos, now);
+            }
+            return videos;
+        } catch (CircuitOpenException e) {
+            return null;
+        } catch (Exception e) {
+            logger.error("Error checking YouTube channel {}", channel.getHandle(), e);
+            return null;
+        }
+    }
 
-            try (Response resolveResponse = httpClient.newCall(resolveRequest).execute()) {
-                if (!resolveResponse.isSuccessful()) {
-                    logger.error("Failed to resolve handle {}: {} - {}", handle, resolveResponse.code(), resolveResponse.body().string());
-                    return;
-                }
+    private static void addCandidates(List<Candidate> candidates, DatabaseManager.YouTubeChannel channel, List<YouTubeVideo> videos,
+                                      List<YouTubePollPlan.Subscriber> subscribers, long now) {
+        if (videos == null) {
+            return;
+        }
 
-                JsonObject resolveJson = JsonParser.parseString(resolveResponse.body().string()).getAsJsonObject();
-                JsonArray items = resolveJson.getAsJsonArray("items");
+        for (YouTubeVideo video : videos) {
+            if (now - parseTime(video.getPublishedAt()) <= CANDIDATE_WINDOW) {
+                candidates.add(new Candidate(channel, video.getId(), video, subscribers));
+            }
+        }
+    }
 
-                if (items.size() == 0) {
-                    logger.error("No channel found for handle {}", handle);
-                    return;
-                }
+    private void processCandidates(List<Candidate> candidates, YouTubePollPlan plan, long now) {
+        Map<String, Candidate> byId = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            byId.putIfAbsent(candidate.videoId, candidate);
+        }
 
-                String channelId = items.get(0).getAsJsonObject().get("id").getAsString();
-                String channelTitle = items.get(0).getAsJsonObject().getAsJsonObject("snippet").get("title").getAsString();
+        Iterator<Map.Entry<String, UpcomingBroadcast>> upcomingIt = upcoming.entrySet().iterator();
+        while (upcomingIt.hasNext()) {
+            Map.Entry<String, UpcomingBroadcast> entry = upcomingIt.next();
+            UpcomingBroadcast broadcast = entry.getValue();
+            if (now > broadcast.scheduledStart + UPCOMING_GIVE_UP) {
+                upcomingIt.remove();
+                continue;
+            }
+            if (now < broadcast.scheduledStart - UPCOMING_LEAD || byId.containsKey(entry.getKey())) {
+                continue;
+            }
 
-                String uploadsPlaylistId = "UU" + channelId.substring(2);
-                String playlistUrl = "https://www.googleapis.com/youtube/v3/playlistItems?part=snippet&playlistId=" + uploadsPlaylistId + "&maxResults=5&order=date&key=" + youtube.getApiKey();
+            DatabaseManager.YouTubeChannel channel = bot.getYouTubeResolver().getCached(broadcast.handle);
+            List<YouTubePollPlan.Subscriber> subscribers = plan.getSubscribers(broadcast.handle);
+            if (channel == null || subscribers.isEmpty()) {
+                upcomingIt.remove();
+                continue;
+            }
+            byId.put(entry.getKey(), new Candidate(channel, entry.getKey(), null, subscribers));
+        }
 
-                Request playlistRequest = new Request.Builder().url(playlistUrl).build();
+        settled.values().removeIf(video -> video.expiresAt <= now);
 
-                try (Response playlistResponse = httpClient.newCall(playlistRequest).execute()) {
-                    if (!playlistResponse.isSuccessful()) {
-                        logger.error("YouTube API error for uploads playlist {}: {} - {}", uploadsPlaylistId, playlistResponse.code(), playlistResponse.body().string());
-                        return;
-                    }
+        List<String> unsettled = new ArrayList<>();
+        for (String videoId : byId.keySet()) {
+            if (!settled.containsKey(videoId)) {
+                unsettled.add(videoId);
+            }
+        }
 
-                    JsonObject playlistJson = JsonParser.parseString(playlistResponse.body().string()).getAsJsonObject();
-                    JsonArray videoItems = playlistJson.getAsJsonArray("items");
+        Map<String, YouTubeVideoDetails> details = unsettled.isEmpty() ? Map.of() : enricher.fetchDetails(unsettled);
 
-                    if (videoItems.size() == 0) {
-                        return;
-                    }
+        for (Candidate candidate : byId.values()) {
+            SettledVideo known = settled.get(candidate.videoId);
+            if (known != null) {
+                announceUpload(candidate, known.details);
+                continue;
+            }
 
-                    for (int i = 0; i < videoItems.size(); i++) {
-                        JsonObject item = videoItems.get(i).getAsJsonObject();
-                        JsonObject videoSnippet = item.getAsJsonObject("snippet");
-                        String videoId = videoSnippet.getAsJsonObject("resourceId").get("videoId").getAsString();
-                        String title = videoSnippet.get("title").getAsString();
-                        String publishedAt = videoSnippet.get("publishedAt").getAsString();
-                        String description = videoSnippet.has("description") ? videoSnippet.get("description").getAsString() : "";
-                        if (description.length() > 200) {
-                            description = description.substring(0, 200) + "...";
-                        }
+            YouTubeVideoDetails video = details.get(candidate.videoId);
+            if (video == null) {
+                announceUpload(candidate, null);
+                continue;
+            }
 
-                        List<String> announced = bot.getAnnouncedStreams().computeIfAbsent(guildId, k -> new ArrayList<>());
-                        if (announced.contains(videoId)) {
-                            continue;
-                        }
+            if (video.isUpcoming()) {
+                long scheduledStart = parseTime(video.getScheduledStartTime());
+                upcoming.put(candidate.videoId, new UpcomingBroadcast(candidate.channel.getHandle(), scheduledStart > 0 ? scheduledStart : now));
+                continue;
+            }
 
-                        Instant publishedInstant = Instant.parse(publishedAt);
-                        Instant now = Instant.now();
-                        Duration timeDiff = Duration.between(publishedInstant, now);
+            upcoming.remove(candidate.videoId);
+            if (video.isLive()) {
+                announceLive(candidate, video, now);
+                continue;
+            }
 
-                        if (timeDiff.toHours() > 24) {
-                            continue;
-                        }
+            if (video.isBroadcast() && video.getActualEndTime() == null) {
+                continue;
+            }
 
-                        String videoUrl = "https://www.youtube.com/watch?v=" + videoId;
-                        String thumbnailUrl = "https://img.youtube.com/vi/" + videoId + "/maxresdefault.jpg";
-
-                        EmbedBuilder embed = new EmbedBuilder();
-                        embed.setTitle("📺 " + channelTitle + " uploaded a new video!");
-                        embed.setDescription("**" + title + "**\n\n" + description + "\n\n[Watch here](" + videoUrl + ")");
-                        embed.setColor(Color.RED);
-                        embed.setImage(thumbnailUrl);
-                        embed.setFooter("YouTube Video Announcement");
-                        embed.setTimestamp(publishedInstant);
-
-                        try {
-                            discordChannel.sendMessageEmbeds(embed.build()).queue();
-                            announced.add(videoId);
-                        } catch (Exception e) {
-                            logger.error("Failed to send YouTube announcement", e);
-                        }
-                    }
+            settled.put(candidate.videoId, new SettledVideo(video, now + SETTLED_TTL));
+            if (video.isBroadcast()) {
+                markLiveAnnounced(candidate);
+            }
+            announceUpload(candidate, video);
+        }
+    }
+
+    private void markLiveAnnounced(Candidate candidate) {
+        AnnouncedStore announced = bot.getAnnouncedStreams();
+        String key = LIVE_KEY_PREFIX + candidate.videoId;
+        for (YouTubePollPlan.Subscriber subscriber : candidate.subscribers) {
+            if (announced.contains(subscriber.getGuildId(), key)) {
+                announced.tryMark(subscriber.getGuildId(), candidate.videoId, AnnouncedStore.VIDEO_TTL);
+            }
+        }
+    }
+
+    private List<YouTubeVideo> fetchUploads(DatabaseManager.YouTubeChannel channel, Config.YouTubeConfig youtube) throws IOException {
+        String uploadsPlaylistId = channel.getUploadsPlaylistId();
+        HttpUrl playlistUrl = HttpUrl.get("https://www.googleapis.com/youtube/v3/playlistItems").newBuilder()
+            .addQueryParameter("part", "snippet")
+            .addQueryParameter("playlistId", uploadsPlaylistId)
+            .addQueryParameter("maxResults", "5")
+            .addQueryParameter("fields", PLAYLIST_FIELDS)
+            .addQueryParameter("key", youtube.getApiKey())
+            .build();
+
+        Request.Builder playlistRequest = new Request.Builder().url(playlistUrl);
+        String etag = playlistEtags.get(uploadsPlaylistId);
+        if (etag != null) {
+            playlistRequest.header("If-None-Match", etag);
+        }
+
+        if (!quotaBudget.tryCharge(YouTubeQuotaBudget.PLAYLIST_ITEMS_LIST_COST)) {
+            return null;
+        }
+
+        Response response;
+        try {
+            response = httpClient.newCall(playlistRequest.build()).execute();
+        } catch (CircuitOpenException e) {
+            quotaBudget.refund(YouTubeQuotaBudget.PLAYLIST_ITEMS_LIST_COST);
+            throw e;
+        }
+
+        try (Response playlistResponse = response) {
+            if (playlistResponse.code() == 304) {
+                return List.of();
+            }
+            if (!playlistResponse.isSuccessful()) {
+                String body = playlistResponse.body().string();
+                if (YouTubeQuotaBudget.isQuotaExceeded(playlistResponse.code(), body)) {
+                    quotaBudget.markExhausted();
                 }
+                logger.error("YouTube API error for uploads playlist {}: {} - {}", uploadsPlaylistId, playlistResponse.code(), body);
+                return null;
+            }
+
+            List<YouTubeVideo> videos;
+            try (JsonReader reader = new JsonReader(playlistResponse.body().charStream())) {
+                videos = YouTubeDecoders.playlistItems(reader, channel.getChannelId());
+            }
+
+            String responseEtag = playlistResponse.header("ETag");
+            if (responseEtag != null) {
+                playlistEtags.put(uploadsPlaylistId, responseEtag);
             }
 
+            return videos;
+        }
+    }
+
+    private void announceUpload(Candidate candidate, YouTubeVideoDetails details) {
+        if (candidate.video == null) {
+            return;
+        }
+
+        AnnouncedStore announced = bot.getAnnouncedStreams();
+        Instant publishedInstant = Instant.parse(candidate.video.getPublishedAt());
+        long endedAt = details != null ? parseTime(details.getActualEndTime()) : 0;
+        Instant freshSince = endedAt > 0 ? Instant.ofEpochMilli(endedAt) : publishedInstant;
+        if (Duration.between(freshSince, Instant.now()).compareTo(ANNOUNCE_WINDOW) > 0) {
+            return;
+        }
+
+        MessageEmbed embed = null;
+        for (YouTubePollPlan.Subscriber subscriber : candidate.subscribers) {
+            if (!announced.tryMark(subscriber.getGuildId(), candidate.videoId, AnnouncedStore.VIDEO_TTL)) {
+                continue;
+            }
+
+            if (embed == null) {
+                embed = buildUploadEmbed(candidate, details, publishedInstant);
+            }
+            send(subscriber, embed);
+        }
+    }
+
+    private void announceLive(Candidate candidate, YouTubeVideoDetails video, long now) {
+        AnnouncedStore announced = bot.getAnnouncedStreams();
+        String key = LIVE_KEY_PREFIX + candidate.videoId;
+        long startedAt = parseTime(video.getActualStartTime());
+        boolean fresh = startedAt == 0 || now - startedAt <= LIVE_ANNOUNCE_WINDOW;
+
+        MessageEmbed embed = null;
+        for (YouTubePollPlan.Subscriber subscriber : candidate.subscribers) {
+            if (announced.contains(subscriber.getGuildId(), key)) {
+                announced.touch(subscriber.getGuildId(), key, AnnouncedStore.STREAM_TTL);
+                continue;
+            }
+            if (!fresh || !announced.tryMark(subscriber.getGuildId(), key, AnnouncedStore.STREAM_TTL)) {
+                continue;
+            }
+
+            if (embed == null) {
+                embed = buildLiveEmbed(candidate, video, startedAt);
+            }
+            send(subscriber, embed);
+        }
+    }
+
+    private static void send(YouTubePollPlan.Subscriber subscriber, MessageEmbed embed) {
+        try {
+            subscriber.getChannel().sendMessageEmbeds(embed).queue();
         } catch (Exception e) {
-            logger.error("Error checking YouTube channel {}", handle, e);
+            logger.error("Failed to send YouTube announcement", e);
+        }
+    }
+
+    private static MessageEmbed buildUploadEmbed(Candidate candidate, YouTubeVideoDetails details, Instant publishedInstant) {
+        String title = details != null && details.getTitle() != null ? details.getTitle() : candidate.video.getTitle();
+        String description = details != null && details.getDescription() != null ? details.getDescription() : candidate.video.getDescription();
+        if (description.length() > 200) {
+            description = description.substring(0, 200) + "...";
+        }
+
+        String videoUrl = "https://www.youtube.com/watch?v=" + candidate.videoId;
+        String thumbnailUrl = "https://img.youtube.com/vi/" + candidate.videoId + "/maxresdefault.jpg";
+
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setTitle("📺 " + candidate.channel.getTitle() + " uploaded a new video!");
+        embed.setDescription("**" + title + "**\n\n" + (description.isEmpty() ? "" : description + "\n\n") + "[Watch here](" + videoUrl + ")");
+        embed.setColor(Color.RED);
+        embed.setImage(thumbnailUrl);
+        embed.setFooter("YouTube Video Announcement");
+        embed.setTimestamp(publishedInstant);
+        return embed.build();
+    }
+
+    private static MessageEmbed buildLiveEmbed(Candidate candidate, YouTubeVideoDetails video, long startedAt) {
+        String title = video.getTitle() != null ? video.getTitle()
+            : candidate.video != null ? candidate.video.getTitle() : "Untitled";
+        String videoUrl = "https://www.youtube.com/watch?v=" + candidate.videoId;
+        String thumbnailUrl = "https://img.youtube.com/vi/" + candidate.videoId + "/maxresdefault.jpg";
+
+        EmbedBuilder embed = new EmbedBuilder();
+        if (video.isPremiere()) {
+            embed.setTitle("🎬 " + candidate.channel.getTitle() + " is premiering a new video!");
+            embed.setFooter("YouTube Premiere Announcement");
+        } else {
+            embed.setTitle("🔴 " + candidate.channel.getTitle() + " is live on YouTube!");
+            embed.setFooter("YouTube Live Announcement");
+        }
+        embed.setDescription("**" + title + "**\n\n[Watch here](" + videoUrl + ")");
+        embed.setColor(Color.RED);
+        embed.setImage(thumbnailUrl);
+        if (video.getConcurrentViewers() > 0) {
+            embed.addField("Viewers", String.valueOf(video.getConcurrentViewers()), true);
+        }
+        embed.setTimestamp(startedAt > 0 ? Instant.ofEpochMilli(startedAt) : Instant.now());
+        return embed.build();
+    }
+
+    private static long parseTime(String timestamp) {
+        try {
+            return timestamp != null ? Instant.parse(timestamp).toEpochMilli() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static class Candidate {
+        private final DatabaseManager.YouTubeChannel channel;
+        private final String videoId;
+        private final YouTubeVideo video;
+        private final List<YouTubePollPlan.Subscriber> subscribers;
+
+        private Candidate(DatabaseManager.YouTubeChannel channel, String videoId, YouTubeVideo video,
+                          List<YouTubePollPlan.Subscriber> subscribers) {
+            this.channel = channel;
+            this.videoId = videoId;
+            this.video = video;
+            this.subscribers = subscribers;
+        }
+    }
+
+    private static class UpcomingBroadcast {
+        private final String handle;
+        private final long scheduledStart;
+
+        private UpcomingBroadcast(String handle, long scheduledStart) {
+            this.handle = handle;
+            this.scheduledStart = scheduledStart;
+        }
+    }
+
+    private static class SettledVideo {
+        private final YouTubeVideoDetails details;
+        private final long expiresAt;
+
+        private SettledVideo(YouTubeVideoDetails details, long expiresAt) {
+            this.details = details;
+            this.expiresAt = expiresAt;
         }
     }
 }
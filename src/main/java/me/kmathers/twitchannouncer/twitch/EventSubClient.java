@@ -0,0 +1,444 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.kmathers.twitchannouncer.config.Config;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class EventSubClient {
+    private static final Logger logger = LoggerFactory.getLogger(EventSubClient.class);
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String[] SUBSCRIPTION_TYPES = {"stream.online", "stream.offline"};
+    private static final long KEEPALIVE_GRACE_MILLIS = 5_000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 60_000;
+    private static final int MAX_SESSION_SUBSCRIPTIONS = 300;
+
+    private final OkHttpClient httpClient;
+    private final HelixDispatcher dispatcher;
+    private final Supplier<Config.TwitchConfig> twitchSupplier;
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+
+    private final Map<String, String> desiredBroadcasters = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<String> overflow = ConcurrentHashMap.newKeySet();
+
+    private volatile WebSocket socket;
+    private volatile WebSocket pendingSocket;
+    private volatile String sessionId;
+    private volatile long lastMessageAt;
+    private volatile long keepaliveTimeoutMillis = 10_000;
+    private volatile boolean running;
+    private volatile boolean atCapacity;
+    private volatile int totalCost;
+    private volatile int maxTotalCost;
+    private boolean capacityLogged;
+    private int reconnectAttempts;
+
+    public EventSubClient(OkHttpClient httpClient, HelixDispatcher dispatcher, Supplier<Config.TwitchConfig> twitchSupplier,
+                          ScheduledExecutorService scheduler, Listener listener) {
+        this.httpClient = httpClient;
+        this.dispatcher = dispatcher;
+        this.twitchSupplier = twitchSupplier;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    public void start() {
+        running = true;
+        connect(twitchSupplier.get().getEventSubWsUrl());
+        scheduler.scheduleAtFixedRate(this::checkKeepalive, 5, 5, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        running = false;
+        WebSocket current = socket;
+        if (current != null) {
+            current.close(1000, "Shutting down");
+        }
+    }
+
+    public boolean isConnected() {
+        return sessionId != null;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptions.size() - overflow.size();
+    }
+
+    public int getOverflowCount() {
+        return overflow.size();
+    }
+
+    public boolean isCovered(String broadcasterId) {
+        return sessionId != null && subscriptions.containsKey(broadcasterId) && !overflow.contains(broadcasterId);
+    }
+
+    public synchronized void syncSubscriptions(Map<String, String> broadcasters) {
+        for (String broadcasterId : new ArrayList<>(desiredBroadcasters.keySet())) {
+            if (!broadcasters.containsKey(broadcasterId)) {
+                desiredBroadcasters.remove(broadcasterId);
+                unsubscribe(broadcasterId);
+            }
+        }
+
+        desiredBroadcasters.putAll(broadcasters);
+
+        if (sessionId != null) {
+            subscribeMissing();
+        }
+    }
+
+    private void connect(String url) {
+        Request request = new Request.Builder().url(url).build();
+        lastMessageAt = System.currentTimeMillis();
+        socket = httpClient.newWebSocket(request, new Handler(false));
+    }
+
+    private void reconnectTo(String url) {
+        Request request = new Request.Builder().url(url).build();
+        pendingSocket = httpClient.newWebSocket(request, new Handler(true));
+    }
+
+    private synchronized void scheduleReconnect() {
+        sessionId = null;
+        resetSubscriptions();
+        if (!running) {
+            return;
+        }
+
+        long delay = Math.min(MAX_RECONNECT_DELAY_MILLIS, 1000L << Math.min(reconnectAttempts, 6));
+        reconnectAttempts++;
+        logger.warn("EventSub connection lost, reconnecting in {}ms", delay);
+        scheduler.schedule(() -> connect(twitchSupplier.get().getEventSubWsUrl()), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkKeepalive() {
+        WebSocket current = socket;
+        if (!running || current == null) {
+            return;
+        }
+
+        if (System.currentTimeMillis() - lastMessageAt > keepaliveTimeoutMillis + KEEPALIVE_GRACE_MILLIS) {
+            logger.warn("No EventSub message within {}ms, dropping session {}", keepaliveTimeoutMillis, sessionId);
+            current.cancel();
+        }
+    }
+
+    private synchronized void subscribeMissing() {
+        Config.TwitchConfig twitch = twitchSupplier.get();
+        String session = sessionId;
+
+        for (String broadcasterId : desiredBroadcasters.keySet()) {
+            if (subscriptions.containsKey(broadcasterId)) {
+                continue;
+            }
+            if (atCapacity || (getSubscriptionCount() + 1) * SUBSCRIPTION_TYPES.length > MAX_SESSION_SUBSCRIPTIONS) {
+                subscriptions.put(broadcasterId, new ArrayList<>());
+                overflow.add(broadcasterId);
+                logCapacity();
+                continue;
+            }
+
+            List<String> ids = new ArrayList<>();
+            subscriptions.put(broadcasterId, ids);
+
+            for (String type : SUBSCRIPTION_TYPES) {
+                JsonObject condition = new JsonObject();
+                condition.addProperty("broadcaster_user_id", broadcasterId);
+                JsonObject transport = new JsonObject();
+                transport.addProperty("method", "websocket");
+                transport.addProperty("session_id", session);
+                JsonObject body = new JsonObject();
+                body.addProperty("type", type);
+                body.addProperty("version", "1");
+                body.add("condition", condition);
+                body.add("transport", transport);
+
+                Request request = new Request.Builder()
+                    .url(twitch.getEventSubApiUrl())
+                    .header("Client-ID", twitch.getClientId())
+                    .header("Authorization", "Bearer " + twitch.getAccessToken())
+                    .post(RequestBody.create(body.toString(), JSON))
+                    .build();
+
+                CompletableFuture<String> response = dispatcher.submit(request);
+                response.whenComplete((responseBody, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        int code = cause instanceof HelixException ? ((HelixException) cause).getCode() : 0;
+                        if (code == 409) {
+                            recoverExisting(broadcasterId, type, session, ids);
+                            return;
+                        }
+                        if (code == 429) {
+                            atCapacity = true;
+                            overflow.add(broadcasterId);
+                            logCapacity();
+                            return;
+                        }
+                        if (code >= 400 && code < 500) {
+                            logger.warn("EventSub rejected {} for broadcaster {}, leaving it on the polling path: {}",
+                                type, broadcasterId, cause.getMessage());
+                            overflow.add(broadcasterId);
+                            return;
+                        }
+                        logger.error("Failed to subscribe to {} for broadcaster {}", type, broadcasterId, cause);
+                        subscriptions.remove(broadcasterId);
+                        return;
+                    }
+
+                    JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
+                    JsonArray data = json.getAsJsonArray("data");
+                    if (data != null && data.size() > 0) {
+                        synchronized (ids) {
+                            ids.add(data.get(0).getAsJsonObject().get("id").getAsString());
+                        }
+                    }
+                    if (json.has("total_cost") && json.has("max_total_cost")) {
+                        totalCost = json.get("total_cost").getAsInt();
+                        maxTotalCost = json.get("max_total_cost").getAsInt();
+                        if (totalCost >= maxTotalCost) {
+                            atCapacity = true;
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void recoverExisting(String broadcasterId, String type, String session, List<String> ids) {
+        Config.TwitchConfig twitch = twitchSupplier.get();
+        Request request = new Request.Builder()
+            .url(HttpUrl.get(twitch.getEventSubApiUrl()).newBuilder().addQueryParameter("user_id", broadcasterId).build())
+            .header("Client-ID", twitch.getClientId())
+            .header("Authorization", "Bearer " + twitch.getAccessToken())
+            .build();
+
+        dispatcher.submit(request).whenComplete((responseBody, error) -> {
+            if (error != null) {
+                logger.warn("Failed to look up existing {} subscription for broadcaster {}", type, broadcasterId, error);
+                return;
+            }
+
+            JsonArray data = JsonParser.parseString(responseBody).getAsJsonObject().getAsJsonArray("data");
+            if (data == null) {
+                return;
+            }
+            for (int i = 0; i < data.size(); i++) {
+                JsonObject subscription = data.get(i).getAsJsonObject();
+                JsonObject transport = subscription.getAsJsonObject("transport");
+                String subscriptionSession = transport != null && transport.has("session_id") ? transport.get("session_id").getAsString() : null;
+                if (type.equals(subscription.get("type").getAsString()) && session.equals(subscriptionSession)) {
+                    synchronized (ids) {
+                        String id = subscription.get("id").getAsString();
+                        if (!ids.contains(id)) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private synchronized void logCapacity() {
+        if (capacityLogged) {
+            return;
+        }
+        capacityLogged = true;
+        logger.warn("EventSub subscription limit reached (cost {}/{}, {} subscriptions per session max); "
+            + "remaining broadcasters stay on the polling path", totalCost, maxTotalCost, MAX_SESSION_SUBSCRIPTIONS);
+    }
+
+    private synchronized void resetSubscriptions() {
+        subscriptions.clear();
+        overflow.clear();
+        atCapacity = false;
+        totalCost = 0;
+        maxTotalCost = 0;
+        capacityLogged = false;
+    }
+
+    private void unsubscribe(String broadcasterId) {
+        List<String> ids = subscriptions.remove(broadcasterId);
+        boolean wasOverflow = overflow.remove(broadcasterId);
+        if (ids == null) {
+            return;
+        }
+        if (!wasOverflow && atCapacity) {
+            releaseOverflow();
+        }
+
+        Config.TwitchConfig twitch = twitchSupplier.get();
+        synchronized (ids) {
+            for (String id : ids) {
+                Request request = new Request.Builder()
+                    .url(HttpUrl.get(twitch.getEventSubApiUrl()).newBuilder().addQueryParameter("id", id).build())
+                    .header("Client-ID", twitch.getClientId())
+                    .header("Authorization", "Bearer " + twitch.getAccessToken())
+                    .delete()
+                    .build();
+
+                dispatcher.submit(request).exceptionally(error -> {
+                    logger.warn("Failed to remove EventSub subscription {}", id, error);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private synchronized void releaseOverflow() {
+        atCapacity = false;
+        capacityLogged = false;
+        for (String broadcasterId : new ArrayList<>(overflow)) {
+            List<String> ids = subscriptions.get(broadcasterId);
+            if (ids != null && ids.isEmpty()) {
+                subscriptions.remove(broadcasterId);
+                overflow.remove(broadcasterId);
+            }
+        }
+    }
+
+    private void handleMessage(WebSocket webSocket, boolean reconnect, String text) {
+        JsonObject message = JsonParser.parseString(text).getAsJsonObject();
+        JsonObject metadata = message.getAsJsonObject("metadata");
+        JsonObject payload = message.getAsJsonObject("payload");
+        String messageType = metadata.get("message_type").getAsString();
+
+        if (webSocket == socket) {
+            lastMessageAt = System.currentTimeMillis();
+        }
+
+        switch (messageType) {
+            case "session_welcome" -> {
+                JsonObject session = payload.getAsJsonObject("session");
+                WebSocket previous = socket;
+                socket = webSocket;
+                pendingSocket = null;
+                sessionId = session.get("id").getAsString();
+                lastMessageAt = System.currentTimeMillis();
+                if (session.has("keepalive_timeout_seconds") && !session.get("keepalive_timeout_seconds").isJsonNull()) {
+                    keepaliveTimeoutMillis = session.get("keepalive_timeout_seconds").getAsLong() * 1000;
+                }
+                synchronized (this) {
+                    reconnectAttempts = 0;
+                }
+
+                if (reconnect && previous != null && previous != webSocket) {
+                    previous.close(1000, "Reconnected");
+                    logger.info("EventSub session migrated to {}", sessionId);
+                } else {
+                    logger.info("EventSub session {} established", sessionId);
+                    resetSubscriptions();
+                    subscribeMissing();
+                }
+            }
+            case "session_keepalive" -> {
+            }
+            case "session_reconnect" -> {
+                String reconnectUrl = payload.getAsJsonObject("session").get("reconnect_url").getAsString();
+                logger.info("EventSub requested reconnect to {}", reconnectUrl);
+                reconnectTo(reconnectUrl);
+            }
+            case "notification" -> {
+                String subscriptionType = metadata.get("subscription_type").getAsString();
+                JsonObject event = payload.getAsJsonObject("event");
+                String broadcasterId = event.get("broadcaster_user_id").getAsString();
+                String login = event.get("broadcaster_user_login").getAsString();
+
+                if (subscriptionType.equals("stream.online")) {
+                    listener.onStreamOnline(broadcasterId, login);
+                } else if (subscriptionType.equals("stream.offline")) {
+                    listener.onStreamOffline(broadcasterId, login);
+                }
+            }
+            case "revocation" -> {
+                JsonObject subscription = payload.getAsJsonObject("subscription");
+                String broadcasterId = subscription.getAsJsonObject("condition").get("broadcaster_user_id").getAsString();
+                String type = subscription.get("type").getAsString();
+                logger.warn("EventSub subscription {} for broadcaster {} revoked: {}",
+                    type, broadcasterId, subscription.get("status").getAsString());
+
+                List<String> ids = subscriptions.get(broadcasterId);
+                if (ids != null) {
+                    synchronized (ids) {
+                        ids.remove(subscription.get("id").getAsString());
+                        if (ids.isEmpty()) {
+                            subscriptions.remove(broadcasterId);
+                            overflow.remove(broadcasterId);
+                        } else if ("stream.online".equals(type)) {
+                            overflow.add(broadcasterId);
+                        }
+                    }
+                }
+            }
+            default -> logger.debug("Ignoring EventSub message type {}", messageType);
+        }
+    }
+
+    public interface Listener {
+        void onStreamOnline(String broadcasterId, String login);
+
+        void onStreamOffline(String broadcasterId, String login);
+    }
+
+    private class Handler extends WebSocketListener {
+        private final boolean reconnect;
+
+        private Handler(boolean reconnect) {
+            this.reconnect = reconnect;
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            try {
+                handleMessage(webSocket, reconnect, text);
+            } catch (Exception e) {
+                logger.error("Error handling EventSub message", e);
+            }
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            if (webSocket == socket) {
+                logger.warn("EventSub socket closed: {} {}", code, reason);
+                socket = null;
+                scheduleReconnect();
+            }
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            if (webSocket == pendingSocket) {
+                logger.error("EventSub reconnect failed", t);
+                pendingSocket = null;
+                return;
+            }
+            if (webSocket == socket) {
+                logger.error("EventSub socket failure", t);
+                socket = null;
+                scheduleReconnect();
+            }
+        }
+    }
+}
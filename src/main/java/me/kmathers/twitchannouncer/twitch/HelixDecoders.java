@@ -0,0 +1,113 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import com.google.gson.stream.JsonReader;
+import me.kmathers.twitchannouncer.http.JsonDecoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class HelixDecoders {
+    private HelixDecoders() {
+    }
+
+    public static List<HelixStream> streams(JsonReader reader) throws IOException {
+        return readData(reader, HelixDecoders::readStream);
+    }
+
+    public static List<StreamerProfileCache.StreamerProfile> users(JsonReader reader) throws IOException {
+        return readData(reader, user -> {
+            HelixUser decoded = readUser(user);
+            return decoded != null ? decoded.toProfile() : null;
+        });
+    }
+
+    public static List<HelixUser> userDetails(JsonReader reader) throws IOException {
+        return readData(reader, HelixDecoders::readUser);
+    }
+
+    private static <T> List<T> readData(JsonReader reader, JsonDecoder<T> element) throws IOException {
+        List<T> data = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("data".equals(reader.nextName())) {
+                data = JsonDecoder.readArray(reader, element);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return data;
+    }
+
+    private static HelixStream readStream(JsonReader reader) throws IOException {
+        String id = null;
+        String userId = null;
+        String userLogin = null;
+        String userName = null;
+        String title = null;
+        String gameName = null;
+        int viewerCount = 0;
+        String startedAt = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> id = JsonDecoder.nextStringOrNull(reader);
+                case "user_id" -> userId = JsonDecoder.nextStringOrNull(reader);
+                case "user_login" -> userLogin = JsonDecoder.nextStringOrNull(reader);
+                case "user_name" -> userName = JsonDecoder.nextStringOrNull(reader);
+                case "title" -> title = JsonDecoder.nextStringOrNull(reader);
+                case "game_name" -> gameName = JsonDecoder.nextStringOrNull(reader);
+                case "viewer_count" -> viewerCount = reader.nextInt();
+                case "started_at" -> startedAt = JsonDecoder.nextStringOrNull(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null || userLogin == null) {
+            return null;
+        }
+
+        return new HelixStream(id, userId, userLogin, emptyToNull(userName),
+            orDefault(title, "No Title"), orDefault(gameName, "Unknown Game"), viewerCount, emptyToNull(startedAt));
+    }
+
+    private static HelixUser readUser(JsonReader reader) throws IOException {
+        String id = null;
+        String login = null;
+        String displayName = null;
+        String profileImageUrl = null;
+        String description = null;
+        String createdAt = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> id = JsonDecoder.nextStringOrNull(reader);
+                case "login" -> login = JsonDecoder.nextStringOrNull(reader);
+                case "display_name" -> displayName = JsonDecoder.nextStringOrNull(reader);
+                case "profile_image_url" -> profileImageUrl = JsonDecoder.nextStringOrNull(reader);
+                case "description" -> description = JsonDecoder.nextStringOrNull(reader);
+                case "created_at" -> createdAt = JsonDecoder.nextStringOrNull(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null || login == null) {
+            return null;
+        }
+
+        return new HelixUser(id, login, displayName != null ? displayName : login, profileImageUrl, description, createdAt);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,128 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import com.google.gson.stream.JsonReader;
+import me.kmathers.twitchannouncer.http.JsonDecoder;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HelixDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(HelixDispatcher.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OkHttpClient httpClient;
+    private final ExecutorService executor;
+    private final HelixRateLimiter rateLimiter = new HelixRateLimiter();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public HelixDispatcher(OkHttpClient httpClient, int concurrency) {
+        this.httpClient = httpClient;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "helix-dispatcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<String> submit(Request request) {
+        return submitWith(request, ResponseBody::string);
+    }
+
+    public <T> CompletableFuture<T> submit(Request request, JsonDecoder<T> decoder) {
+        return submitWith(request, body -> {
+            try (JsonReader reader = new JsonReader(body.charStream())) {
+                return decoder.decode(reader);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> submitWith(Request request, BodyReader<T> bodyReader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        queued.incrementAndGet();
+
+        executor.execute(() -> {
+            try {
+                future.complete(dispatch(request, bodyReader));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    private <T> T dispatch(Request request, BodyReader<T> bodyReader) throws Exception {
+        boolean dequeued = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                rateLimiter.acquire();
+                if (!dequeued) {
+                    queued.decrementAndGet();
+                    dequeued = true;
+                }
+
+                inFlight.incrementAndGet();
+                Response response = null;
+                try {
+                    response = httpClient.newCall(request).execute();
+
+                    if (response.code() == 429 && attempt < MAX_ATTEMPTS) {
+                        logger.warn("Twitch rate limit hit, retrying {} after reset", request.url().encodedPath());
+                        continue;
+                    }
+                    if (!response.isSuccessful()) {
+                        throw new HelixException(response.code(), response.body() != null ? response.body().string() : "");
+                    }
+                    return bodyReader.read(response.body());
+                } finally {
+                    inFlight.decrementAndGet();
+                    rateLimiter.release(response);
+                    if (response != null) {
+                        response.close();
+                    }
+                }
+            }
+        } finally {
+            if (!dequeued) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getRateLimitRemaining() {
+        return rateLimiter.getRemaining();
+    }
+
+    public int getRateLimitLimit() {
+        return rateLimiter.getLimit();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(ResponseBody body) throws IOException;
+    }
+}
@@ -0,0 +1,17 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import java.io.IOException;
+
+public class HelixException extends IOException {
+    private final int code;
+    private final String body;
+
+    public HelixException(int code, String body) {
+        super("Twitch API error: " + code + " - " + body);
+        this.code = code;
+        this.body = body;
+    }
+
+    public int getCode() { return code; }
+    public String getBody() { return body; }
+}
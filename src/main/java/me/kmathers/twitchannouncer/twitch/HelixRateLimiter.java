@@ -0,0 +1,80 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import okhttp3.Response;
+
+public class HelixRateLimiter {
+    private static final int DEFAULT_LIMIT = 800;
+    private static final long DEFAULT_WINDOW_MILLIS = 60_000;
+
+    private int limit = DEFAULT_LIMIT;
+    private int remaining = DEFAULT_LIMIT;
+    private long resetAtMillis;
+    private int outstanding;
+
+    public synchronized void acquire() throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (now >= resetAtMillis) {
+                remaining = Math.max(remaining, limit - outstanding);
+                resetAtMillis = now + DEFAULT_WINDOW_MILLIS;
+            }
+
+            if (remaining > 0) {
+                remaining--;
+                outstanding++;
+                return;
+            }
+
+            wait(Math.max(1, resetAtMillis - now));
+        }
+    }
+
+    public synchronized void release(Response response) {
+        outstanding = Math.max(0, outstanding - 1);
+
+        if (response != null) {
+            Integer headerLimit = parseInt(response.header("Ratelimit-Limit"));
+            Integer headerRemaining = parseInt(response.header("Ratelimit-Remaining"));
+            Long headerReset = parseLong(response.header("Ratelimit-Reset"));
+
+            if (headerLimit != null) {
+                limit = headerLimit;
+            }
+            if (headerRemaining != null) {
+                remaining = Math.max(0, headerRemaining - outstanding);
+            }
+            if (headerReset != null) {
+                resetAtMillis = headerReset * 1000;
+            }
+            if (response.code() == 429) {
+                remaining = 0;
+            }
+        }
+
+        notifyAll();
+    }
+
+    public synchronized int getRemaining() {
+        return remaining;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package me.kmathers.twitchannouncer.twitch;
+
+public class HelixStream {
+    private final String id;
+    private final String userId;
+    private final String userLogin;
+    private final String userName;
+    private final String title;
+    private final String gameName;
+    private final int viewerCount;
+    private final String startedAt;
+
+    public HelixStream(String id, String userId, String userLogin, String userName, String title,
+                       String gameName, int viewerCount, String startedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userLogin = userLogin;
+        this.userName = userName;
+        this.title = title;
+        this.gameName = gameName;
+        this.viewerCount = viewerCount;
+        this.startedAt = startedAt;
+    }
+
+    public String getId() { return id; }
+    public String getUserId() { return userId; }
+    public String getUserLogin() { return userLogin; }
+    public String getUserName() { return userName; }
+    public String getTitle() { return title; }
+    public String getGameName() { return gameName; }
+    public int getViewerCount() { return viewerCount; }
+    public String getStartedAt() { return startedAt; }
+}
@@ -0,0 +1,30 @@
+package me.kmathers.twitchannouncer.twitch;
+
+public class HelixUser {
+    private final String id;
+    private final String login;
+    private final String displayName;
+    private final String profileImageUrl;
+    private final String description;
+    private final String createdAt;
+
+    public HelixUser(String id, String login, String displayName, String profileImageUrl, String description, String createdAt) {
+        this.id = id;
+        this.login = login;
+        this.displayName = displayName;
+        this.profileImageUrl = profileImageUrl;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+
+    public StreamerProfileCache.StreamerProfile toProfile() {
+        return new StreamerProfileCache.StreamerProfile(id, login, displayName, profileImageUrl);
+    }
+
+    public String getId() { return id; }
+    public String getLogin() { return login; }
+    public String getDisplayName() { return displayName; }
+    public String getProfileImageUrl() { return profileImageUrl; }
+    public String getDescription() { return description; }
+    public String getCreatedAt() { return createdAt; }
+}
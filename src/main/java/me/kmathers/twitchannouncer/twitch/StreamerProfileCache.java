@@ -0,0 +1,181 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.http.CircuitOpenException;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class StreamerProfileCache {
+    private static final Logger logger = LoggerFactory.getLogger(StreamerProfileCache.class);
+    private static final int MAX_IDS_PER_REQUEST = 100;
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(12);
+    private static final long REFRESH_AHEAD_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final long MISSING_RETRY_AFTER = TimeUnit.HOURS.toMillis(1);
+
+    private final HelixDispatcher dispatcher;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> loginIndex = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingUntil = new ConcurrentHashMap<>();
+
+    public StreamerProfileCache(HelixDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public StreamerProfile get(String userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? entry.profile : null;
+    }
+
+    public Map<String, StreamerProfile> resolve(Collection<String> userIds, Config.TwitchConfig twitch) {
+        long now = System.currentTimeMillis();
+        Set<String> toFetch = new LinkedHashSet<>();
+
+        for (String userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry == null ? !isMissing("id", userId, now) : now >= entry.expiresAt - REFRESH_AHEAD_MILLIS) {
+                toFetch.add(userId);
+            }
+        }
+
+        if (!toFetch.isEmpty()) {
+            fetch("id", new ArrayList<>(toFetch), twitch);
+        }
+
+        Map<String, StreamerProfile> profiles = new HashMap<>();
+        for (String userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                profiles.put(userId, entry.profile);
+            }
+        }
+        return profiles;
+    }
+
+    public Map<String, StreamerProfile> resolveLogins(Collection<String> logins, Config.TwitchConfig twitch) {
+        long now = System.currentTimeMillis();
+        Set<String> toFetch = new LinkedHashSet<>();
+
+        for (String login : logins) {
+            Entry entry = lookupLogin(login);
+            if (entry == null ? !isMissing("login", login.toLowerCase(), now) : now >= entry.expiresAt - REFRESH_AHEAD_MILLIS) {
+                toFetch.add(login.toLowerCase());
+            }
+        }
+
+        if (!toFetch.isEmpty()) {
+            fetch("login", new ArrayList<>(toFetch), twitch);
+        }
+
+        Map<String, StreamerProfile> profiles = new HashMap<>();
+        for (String login : logins) {
+            Entry entry = lookupLogin(login);
+            if (entry != null) {
+                profiles.put(login, entry.profile);
+            }
+        }
+        return profiles;
+    }
+
+    private Entry lookupLogin(String login) {
+        String userId = loginIndex.get(login.toLowerCase());
+        return userId != null ? entries.get(userId) : null;
+    }
+
+    private boolean isMissing(String parameter, String value, long now) {
+        Long retryAt = missingUntil.get(parameter + ":" + value);
+        return retryAt != null && now < retryAt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void fetch(String parameter, List<String> values, Config.TwitchConfig twitch) {
+        List<CompletableFuture<List<StreamerProfile>>> responses = new ArrayList<>();
+        List<List<String>> batches = new ArrayList<>();
+
+        for (int i = 0; i < values.size(); i += MAX_IDS_PER_REQUEST) {
+            List<String> batch = values.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, values.size()));
+
+            HttpUrl.Builder url = HttpUrl.get("https://api.twitch.tv/helix/users").newBuilder();
+            for (String value : batch) {
+                url.addQueryParameter(parameter, value);
+            }
+
+            Request request = new Request.Builder()
+                .url(url.build())
+                .header("Client-ID", twitch.getClientId())
+                .header("Authorization", "Bearer " + twitch.getAccessToken())
+                .build();
+
+            responses.add(dispatcher.submit(request, HelixDecoders::users));
+            batches.add(batch);
+        }
+
+        for (int i = 0; i < responses.size(); i++) {
+            try {
+                long now = System.currentTimeMillis();
+                long expiresAt = now + TTL_MILLIS;
+                Set<String> unmatched = new LinkedHashSet<>(batches.get(i));
+                for (StreamerProfile profile : responses.get(i).join()) {
+                    entries.put(profile.getId(), new Entry(profile, expiresAt));
+                    loginIndex.put(profile.getLogin().toLowerCase(), profile.getId());
+                    String value = parameter.equals("id") ? profile.getId() : profile.getLogin().toLowerCase();
+                    unmatched.remove(value);
+                    missingUntil.remove(parameter + ":" + value);
+                }
+                for (String value : unmatched) {
+                    missingUntil.put(parameter + ":" + value, now + MISSING_RETRY_AFTER);
+                }
+            } catch (Exception e) {
+                if (e.getCause() instanceof CircuitOpenException) {
+                    logger.debug("Skipped user profile batch: {}", e.getCause().getMessage());
+                } else {
+                    logger.error("Error fetching user profiles", e);
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        private final StreamerProfile profile;
+        private final long expiresAt;
+
+        private Entry(StreamerProfile profile, long expiresAt) {
+            this.profile = profile;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class StreamerProfile {
+        private final String id;
+        private final String login;
+        private final String displayName;
+        private final String profileImageUrl;
+
+        public StreamerProfile(String id, String login, String displayName, String profileImageUrl) {
+            this.id = id;
+            this.login = login;
+            this.displayName = displayName;
+            this.profileImageUrl = profileImageUrl;
+        }
+
+        public String getId() { return id; }
+        public String getLogin() { return login; }
+        public String getDisplayName() { return displayName; }
+        public String getProfileImageUrl() { return profileImageUrl; }
+    }
+}
@@ -0,0 +1,177 @@
+package me.kmathers.twitchannouncer.twitch;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.kmathers.twitchannouncer.config.Config;
+import okhttp3.FormBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TwitchTokenManager {
+    private static final Logger logger = LoggerFactory.getLogger(TwitchTokenManager.class);
+    private static final String TOKEN_URL = "https://id.twitch.tv/oauth2/token";
+    private static final String VALIDATE_URL = "https://id.twitch.tv/oauth2/validate";
+    private static final String HELIX_HOST = "api.twitch.tv";
+    private static final long VALIDATE_INTERVAL_MINUTES = 60;
+    private static final long REFRESH_MARGIN = TimeUnit.MINUTES.toMillis(10);
+    private static final long MIN_REFRESH_DELAY = TimeUnit.SECONDS.toMillis(30);
+    private static final long REFRESH_FAILURE_COOLDOWN = TimeUnit.SECONDS.toMillis(30);
+
+    private final Config config;
+    private final OkHttpClient httpClient;
+    private final OkHttpClient helixClient;
+    private final ScheduledExecutorService scheduler;
+    private final Object refreshLock = new Object();
+    private volatile ScheduledFuture<?> scheduledRefresh;
+    private volatile long expiresAt;
+    private volatile long lastFailureAt;
+
+    public TwitchTokenManager(Config config, OkHttpClient httpClient, ScheduledExecutorService scheduler) {
+        this.config = config;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.helixClient = httpClient.newBuilder()
+            .authenticator(this::authenticate)
+            .build();
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::validate, 0, VALIDATE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public OkHttpClient getHelixClient() {
+        return helixClient;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void validate() {
+        Config.TwitchConfig twitch = config.getTwitch();
+        Request request = new Request.Builder()
+            .url(VALIDATE_URL)
+            .header("Authorization", "OAuth " + twitch.getAccessToken())
+            .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.code() == 401) {
+                logger.warn("Twitch access token is no longer valid, refreshing");
+                refreshIfCurrent(twitch.getAccessToken());
+                return;
+            }
+            if (!response.isSuccessful()) {
+                logger.warn("Failed to validate Twitch token. Status code: {}", response.code());
+                return;
+            }
+
+            JsonObject json = JsonParser.parseString(response.body().string()).getAsJsonObject();
+            long expiresIn = json.has("expires_in") ? json.get("expires_in").getAsLong() : 0;
+            if (expiresIn <= 0) {
+                refreshIfCurrent(twitch.getAccessToken());
+                return;
+            }
+            scheduleRefresh(expiresIn);
+        } catch (Exception e) {
+            logger.error("Exception while validating Twitch token", e);
+        }
+    }
+
+    public String refreshIfCurrent(String staleToken) {
+        synchronized (refreshLock) {
+            String current = config.getTwitch().getAccessToken();
+            if (staleToken != null && !staleToken.equals(current)) {
+                return current;
+            }
+            if (System.currentTimeMillis() - lastFailureAt < REFRESH_FAILURE_COOLDOWN) {
+                return null;
+            }
+
+            try {
+                return refresh();
+            } catch (Exception e) {
+                lastFailureAt = System.currentTimeMillis();
+                logger.error("Exception while refreshing Twitch token", e);
+                return null;
+            }
+        }
+    }
+
+    private String refresh() throws IOException {
+        Config.TwitchConfig twitch = config.getTwitch();
+        logger.info("Attempting to refresh Twitch token...");
+
+        Request request = new Request.Builder()
+            .url(TOKEN_URL)
+            .post(new FormBody.Builder()
+                .add("grant_type", "refresh_token")
+                .add("refresh_token", twitch.getRefreshToken())
+                .add("client_id", twitch.getClientId())
+                .add("client_secret", twitch.getClientSecret())
+                .build())
+            .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            String body = response.body().string();
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to refresh token. Status code: " + response.code() + ", Response: " + body);
+            }
+
+            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+            if (!json.has("access_token") || !json.has("refresh_token")) {
+                throw new IOException("Missing tokens in Twitch response: " + body);
+            }
+
+            String accessToken = json.get("access_token").getAsString();
+            config.saveTwitchTokens(accessToken, json.get("refresh_token").getAsString());
+            if (json.has("expires_in")) {
+                scheduleRefresh(json.get("expires_in").getAsLong());
+            }
+
+            lastFailureAt = 0;
+            logger.info("Successfully refreshed Twitch token.");
+            return accessToken;
+        }
+    }
+
+    private void scheduleRefresh(long expiresInSeconds) {
+        long expiresInMillis = TimeUnit.SECONDS.toMillis(expiresInSeconds);
+        expiresAt = System.currentTimeMillis() + expiresInMillis;
+
+        long delay = Math.max(MIN_REFRESH_DELAY, expiresInMillis - REFRESH_MARGIN);
+        String token = config.getTwitch().getAccessToken();
+
+        ScheduledFuture<?> previous = scheduledRefresh;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(() -> refreshIfCurrent(token), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Request authenticate(Route route, Response response) {
+        Request request = response.request();
+        if (!HELIX_HOST.equals(request.url().host()) || response.priorResponse() != null) {
+            return null;
+        }
+
+        String header = request.header("Authorization");
+        String staleToken = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        String token = refreshIfCurrent(staleToken);
+        if (token == null || token.equals(staleToken)) {
+            return null;
+        }
+
+        return request.newBuilder()
+            .header("Authorization", "Bearer " + token)
+            .build();
+    }
+}
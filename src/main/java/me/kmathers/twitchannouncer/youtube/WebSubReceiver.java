@@ -0,0 +1,321 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import me.kmathers.twitchannouncer.config.Config;
+import okhttp3.FormBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class WebSubReceiver {
+    private static final Logger logger = LoggerFactory.getLogger(WebSubReceiver.class);
+    private static final String TOPIC_PREFIX = "https://www.youtube.com/xml/feeds/videos.xml?channel_id=";
+    private static final long LEASE_SECONDS = TimeUnit.DAYS.toSeconds(5);
+    private static final long MIN_RENEW_DELAY_SECONDS = 60;
+    private static final long REQUEST_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final OkHttpClient httpClient;
+    private final Config.YouTubeConfig youtube;
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    public WebSubReceiver(OkHttpClient httpClient, Config.YouTubeConfig youtube, ScheduledExecutorService scheduler, Listener listener) {
+        this.httpClient = httpClient;
+        this.youtube = youtube;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    public void start() throws IOException {
+        String path = URI.create(youtube.getWebSubCallbackUrl()).getPath();
+        server = HttpServer.create(new InetSocketAddress(youtube.getWebSubPort()), 0);
+        server.createContext(path == null || path.isEmpty() ? "/" : path, this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "websub-receiver");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        logger.info("WebSub callback listening on port {} for {}", youtube.getWebSubPort(), youtube.getWebSubCallbackUrl());
+    }
+
+    public void stop() {
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.cancelRenewal();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    public int getActiveCount() {
+        long now = System.currentTimeMillis();
+        int active = 0;
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.leaseExpiresAt > now) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public boolean isLeased(String channelId) {
+        Subscription subscription = subscriptions.get(channelId);
+        return subscription != null && subscription.leaseExpiresAt > System.currentTimeMillis();
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    public synchronized void syncSubscriptions(Collection<String> channelIds) {
+        for (String channelId : new ArrayList<>(subscriptions.keySet())) {
+            if (!channelIds.contains(channelId)) {
+                Subscription removed = subscriptions.remove(channelId);
+                removed.cancelRenewal();
+                requestSubscription(channelId, "unsubscribe");
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (String channelId : channelIds) {
+            Subscription subscription = subscriptions.computeIfAbsent(channelId, k -> new Subscription());
+            if (subscription.leaseExpiresAt <= now && now - subscription.requestedAt >= REQUEST_RETRY_MILLIS) {
+                subscription.requestedAt = now;
+                requestSubscription(channelId, "subscribe");
+            }
+        }
+    }
+
+    private void requestSubscription(String channelId, String mode) {
+        FormBody.Builder form = new FormBody.Builder()
+            .add("hub.callback", youtube.getWebSubCallbackUrl())
+            .add("hub.topic", TOPIC_PREFIX + channelId)
+            .add("hub.mode", mode)
+            .add("hub.verify", "async")
+            .add("hub.lease_seconds", String.valueOf(LEASE_SECONDS));
+        if (youtube.getWebSubSecret() != null) {
+            form.add("hub.secret", youtube.getWebSubSecret());
+        }
+
+        Request request = new Request.Builder()
+            .url(youtube.getWebSubHubUrl())
+            .post(form.build())
+            .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                logger.warn("WebSub {} for channel {} rejected by hub: {} - {}", mode, channelId, response.code(), response.body().string());
+            }
+        } catch (IOException e) {
+            logger.warn("WebSub {} request for channel {} failed: {}", mode, channelId, e.getMessage());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> handleVerification(exchange);
+                case "POST" -> handleNotification(exchange);
+                default -> respond(exchange, 405, "");
+            }
+        } catch (Exception e) {
+            logger.error("Error handling WebSub request", e);
+            if (exchange.getResponseCode() == -1) {
+                respond(exchange, 500, "");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleVerification(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String mode = params.get("hub.mode");
+        String topic = params.get("hub.topic");
+        String challenge = params.get("hub.challenge");
+
+        if (mode == null || topic == null || !topic.startsWith(TOPIC_PREFIX)) {
+            respond(exchange, 404, "");
+            return;
+        }
+
+        String channelId = topic.substring(TOPIC_PREFIX.length());
+        Subscription subscription = subscriptions.get(channelId);
+
+        switch (mode) {
+            case "subscribe" -> {
+                if (subscription == null || challenge == null) {
+                    respond(exchange, 404, "");
+                    return;
+                }
+                long leaseSeconds = parseLong(params.get("hub.lease_seconds"), LEASE_SECONDS);
+                subscription.leaseExpiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(leaseSeconds);
+                scheduleRenewal(channelId, subscription, leaseSeconds);
+                logger.debug("WebSub subscription verified for channel {} ({}s lease)", channelId, leaseSeconds);
+                respond(exchange, 200, challenge);
+            }
+            case "unsubscribe" -> {
+                if (subscription != null || challenge == null) {
+                    respond(exchange, 404, "");
+                    return;
+                }
+                respond(exchange, 200, challenge);
+            }
+            case "denied" -> {
+                logger.warn("WebSub subscription for channel {} denied: {}", channelId, params.get("hub.reason"));
+                respond(exchange, 200, "");
+            }
+            default -> respond(exchange, 404, "");
+        }
+    }
+
+    private void handleNotification(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = input.readAllBytes();
+        }
+
+        if (youtube.getWebSubSecret() != null
+            && !isValidSignature(body, exchange.getRequestHeaders().getFirst("X-Hub-Signature"))) {
+            logger.warn("Discarding WebSub notification with invalid signature");
+            respond(exchange, 202, "");
+            return;
+        }
+
+        respond(exchange, 202, "");
+
+        List<YouTubeVideo> videos;
+        try {
+            videos = YouTubeFeedParser.parse(new ByteArrayInputStream(body));
+        } catch (Exception e) {
+            logger.warn("Discarding malformed WebSub notification: {}", e.getMessage());
+            return;
+        }
+
+        Map<String, List<YouTubeVideo>> byChannel = new LinkedHashMap<>();
+        for (YouTubeVideo video : videos) {
+            if (video.getChannelId() != null && subscriptions.containsKey(video.getChannelId())) {
+                byChannel.computeIfAbsent(video.getChannelId(), k -> new ArrayList<>()).add(video);
+            }
+        }
+
+        for (Map.Entry<String, List<YouTubeVideo>> entry : byChannel.entrySet()) {
+            scheduler.execute(() -> {
+                try {
+                    listener.onVideos(entry.getKey(), entry.getValue());
+                } catch (Exception e) {
+                    logger.error("Error handling WebSub videos for channel {}", entry.getKey(), e);
+                }
+            });
+        }
+    }
+
+    private void scheduleRenewal(String channelId, Subscription subscription, long leaseSeconds) {
+        long delay = Math.max(MIN_RENEW_DELAY_SECONDS, leaseSeconds * 9 / 10);
+        subscription.cancelRenewal();
+        subscription.renewal = scheduler.schedule(() -> {
+            if (subscriptions.get(channelId) == subscription) {
+                subscription.requestedAt = System.currentTimeMillis();
+                requestSubscription(channelId, "subscribe");
+            }
+        }, delay, TimeUnit.SECONDS);
+    }
+
+    private boolean isValidSignature(byte[] body, String header) {
+        if (header == null || !header.startsWith("sha1=")) {
+            return false;
+        }
+
+        try {
+            Mac mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(youtube.getWebSubSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+            byte[] expected = mac.doFinal(body);
+            byte[] provided = HexFormat.of().parseHex(header.substring(5));
+            return MessageDigest.isEqual(expected, provided);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return value != null ? Long.parseLong(value) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public interface Listener {
+        void onVideos(String channelId, List<YouTubeVideo> videos);
+    }
+
+    private static class Subscription {
+        private volatile long leaseExpiresAt;
+        private volatile long requestedAt;
+        private volatile ScheduledFuture<?> renewal;
+
+        private void cancelRenewal() {
+            ScheduledFuture<?> current = renewal;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import com.google.gson.stream.JsonReader;
+import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.database.DatabaseManager;
+import me.kmathers.twitchannouncer.http.CircuitOpenException;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class YouTubeChannelResolver {
+    private static final Logger logger = LoggerFactory.getLogger(YouTubeChannelResolver.class);
+    private static final long REVALIDATE_AFTER = TimeUnit.DAYS.toMillis(7);
+    private static final long MISSING_RETRY_AFTER = TimeUnit.HOURS.toMillis(6);
+    private static final long REVALIDATE_MISS_BACKOFF = TimeUnit.DAYS.toMillis(1);
+
+    private final DatabaseManager database;
+    private final OkHttpClient httpClient;
+    private final Config.YouTubeConfig youtube;
+    private final YouTubeQuotaBudget quotaBudget;
+    private final Map<String, DatabaseManager.YouTubeChannel> channels = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingUntil = new ConcurrentHashMap<>();
+    private final Map<String, Integer> revalidateMisses = new ConcurrentHashMap<>();
+
+    public YouTubeChannelResolver(DatabaseManager database, OkHttpClient httpClient, Config.YouTubeConfig youtube,
+                                  YouTubeQuotaBudget quotaBudget) {
+        this.database = database;
+        this.httpClient = httpClient;
+        this.youtube = youtube;
+        this.quotaBudget = quotaBudget;
+        this.channels.putAll(database.loadYouTubeChannels());
+    }
+
+    public DatabaseManager.YouTubeChannel getCached(String handle) {
+        return channels.get(handle.toLowerCase());
+    }
+
+    public DatabaseManager.YouTubeChannel resolve(String handle) throws IOException {
+        DatabaseManager.YouTubeChannel cached = getCached(handle);
+        if (cached != null) {
+            return cached;
+        }
+
+        String key = handle.toLowerCase();
+        Long retryAt = missingUntil.get(key);
+        if (retryAt != null && System.currentTimeMillis() < retryAt) {
+            return null;
+        }
+
+        DatabaseManager.YouTubeChannel channel = fetch(key);
+        if (channel == null) {
+            missingUntil.put(key, System.currentTimeMillis() + MISSING_RETRY_AFTER);
+        }
+        return channel;
+    }
+
+    public void revalidateStale(int maxChannels) {
+        long now = System.currentTimeMillis();
+        List<String> stale = new ArrayList<>();
+
+        for (DatabaseManager.YouTubeChannel channel : channels.values()) {
+            Long retryAt = missingUntil.get(channel.getHandle());
+            if (retryAt != null && now < retryAt) {
+                continue;
+            }
+            if (now - channel.getResolvedAt() >= REVALIDATE_AFTER) {
+                stale.add(channel.getHandle());
+                if (stale.size() >= maxChannels) {
+                    break;
+                }
+            }
+        }
+
+        for (String handle : stale) {
+            try {
+                if (fetch(handle) == null) {
+                    int misses = revalidateMisses.merge(handle, 1, Integer::sum);
+                    long backoff = Math.min(REVALIDATE_AFTER, REVALIDATE_MISS_BACKOFF << Math.min(misses - 1, 3));
+                    missingUntil.put(handle, now + backoff);
+                    logger.warn("YouTube handle {} no longer resolves, keeping cached channel and retrying in {}h",
+                        handle, TimeUnit.MILLISECONDS.toHours(backoff));
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to revalidate YouTube handle {}: {}", handle, e.getMessage());
+            }
+        }
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    private DatabaseManager.YouTubeChannel fetch(String handle) throws IOException {
+        HttpUrl url = HttpUrl.get("https://www.googleapis.com/youtube/v3/channels").newBuilder()
+            .addQueryParameter("part", "id,snippet,contentDetails")
+            .addQueryParameter("forHandle", handle.startsWith("@") ? handle.substring(1) : handle)
+            .addQueryParameter("key", youtube.getApiKey())
+            .build();
+
+        if (!quotaBudget.tryCharge(YouTubeQuotaBudget.CHANNELS_LIST_COST)) {
+            throw new IOException("YouTube quota exhausted, cannot resolve handle " + handle);
+        }
+
+        Response call;
+        try {
+            call = httpClient.newCall(new Request.Builder().url(url).build()).execute();
+        } catch (CircuitOpenException e) {
+            quotaBudget.refund(YouTubeQuotaBudget.CHANNELS_LIST_COST);
+            throw e;
+        }
+
+        try (Response response = call) {
+            if (!response.isSuccessful()) {
+                String body = response.body().string();
+                if (YouTubeQuotaBudget.isQuotaExceeded(response.code(), body)) {
+                    quotaBudget.markExhausted();
+                }
+                throw new IOException("Failed to resolve handle " + handle + ": " + response.code() + " - " + body);
+            }
+
+            List<YouTubeDecoders.ChannelItem> items;
+            try (JsonReader reader = new JsonReader(response.body().charStream())) {
+                items = YouTubeDecoders.channels(reader);
+            }
+            if (items.isEmpty() || items.get(0).getUploadsPlaylistId() == null) {
+                return null;
+            }
+
+            YouTubeDecoders.ChannelItem item = items.get(0);
+            DatabaseManager.YouTubeChannel channel = new DatabaseManager.YouTubeChannel(
+                handle, item.getId(), item.getTitle(), item.getUploadsPlaylistId(), System.currentTimeMillis());
+            channels.put(handle, channel);
+            missingUntil.remove(handle);
+            revalidateMisses.remove(handle);
+            database.saveYouTubeChannel(channel);
+
+            return channel;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import com.google.gson.stream.JsonReader;
+import me.kmathers.twitchannouncer.http.JsonDecoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class YouTubeDecoders {
+    private YouTubeDecoders() {
+    }
+
+    public static List<ChannelItem> channels(JsonReader reader) throws IOException {
+        return readItems(reader, YouTubeDecoders::readChannel);
+    }
+
+    public static List<YouTubeVideo> playlistItems(JsonReader reader, String channelId) throws IOException {
+        return readItems(reader, item -> readPlaylistItem(item, channelId));
+    }
+
+    private static <T> List<T> readItems(JsonReader reader, JsonDecoder<T> element) throws IOException {
+        List<T> items = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("items".equals(reader.nextName())) {
+                items = JsonDecoder.readArray(reader, element);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return items;
+    }
+
+    private static ChannelItem readChannel(JsonReader reader) throws IOException {
+        String id = null;
+        String title = null;
+        String uploadsPlaylistId = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> id = JsonDecoder.nextStringOrNull(reader);
+                case "snippet" -> title = readField(reader, "title");
+                case "contentDetails" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("relatedPlaylists".equals(reader.nextName())) {
+                            uploadsPlaylistId = readField(reader, "uploads");
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null) {
+            return null;
+        }
+        if (uploadsPlaylistId == null && id.startsWith("UC")) {
+            uploadsPlaylistId = "UU" + id.substring(2);
+        }
+        return new ChannelItem(id, title, uploadsPlaylistId);
+    }
+
+    private static YouTubeVideo readPlaylistItem(JsonReader reader, String channelId) throws IOException {
+        String videoId = null;
+        String title = null;
+        String description = null;
+        String publishedAt = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"snippet".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "title" -> title = JsonDecoder.nextStringOrNull(reader);
+                    case "description" -> description = JsonDecoder.nextStringOrNull(reader);
+                    case "publishedAt" -> publishedAt = JsonDecoder.nextStringOrNull(reader);
+                    case "resourceId" -> videoId = readField(reader, "videoId");
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        if (videoId == null || publishedAt == null) {
+            return null;
+        }
+        return new YouTubeVideo(videoId, channelId, title != null ? title : "No Title",
+            description != null ? description : "", publishedAt);
+    }
+
+    private static String readField(JsonReader reader, String field) throws IOException {
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (field.equals(reader.nextName())) {
+                value = JsonDecoder.nextStringOrNull(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    public static class ChannelItem {
+        private final String id;
+        private final String title;
+        private final String uploadsPlaylistId;
+
+        public ChannelItem(String id, String title, String uploadsPlaylistId) {
+            this.id = id;
+            this.title = title;
+            this.uploadsPlaylistId = uploadsPlaylistId;
+        }
+
+        public String getId() { return id; }
+        public String getTitle() { return title; }
+        public String getUploadsPlaylistId() { return uploadsPlaylistId; }
+    }
+}
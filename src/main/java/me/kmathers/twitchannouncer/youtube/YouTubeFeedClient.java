@@ -0,0 +1,88 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class YouTubeFeedClient {
+    private static final String FEED_URL = "https://www.youtube.com/feeds/videos.xml";
+
+    private final OkHttpClient httpClient;
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public YouTubeFeedClient(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public List<YouTubeVideo> fetch(String channelId) throws IOException {
+        HttpUrl url = HttpUrl.get(FEED_URL).newBuilder()
+            .addQueryParameter("channel_id", channelId)
+            .build();
+
+        Request.Builder request = new Request.Builder().url(url);
+        Validators cached = validators.get(channelId);
+        if (cached != null) {
+            if (cached.etag != null) {
+                request.header("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                request.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        try (Response response = httpClient.newCall(request.build()).execute()) {
+            if (response.code() == 304) {
+                notModified.incrementAndGet();
+                return List.of();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Feed request for " + channelId + " failed: " + response.code());
+            }
+
+            List<YouTubeVideo> videos;
+            try (InputStream body = response.body().byteStream()) {
+                videos = YouTubeFeedParser.parse(body);
+            } catch (XMLStreamException e) {
+                throw new IOException("Malformed feed for " + channelId, e);
+            }
+
+            String etag = response.header("ETag");
+            String lastModified = response.header("Last-Modified");
+            if (etag != null || lastModified != null) {
+                validators.put(channelId, new Validators(etag, lastModified));
+            }
+
+            fetched.incrementAndGet();
+            return videos;
+        }
+    }
+
+    public long getFetchedCount() {
+        return fetched.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    private static class Validators {
+        private final String etag;
+        private final String lastModified;
+
+        private Validators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
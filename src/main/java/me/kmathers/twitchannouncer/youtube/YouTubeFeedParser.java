@@ -0,0 +1,73 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class YouTubeFeedParser {
+    private static final XMLInputFactory factory = createFactory();
+
+    private YouTubeFeedParser() {
+    }
+
+    public static List<YouTubeVideo> parse(InputStream input) throws XMLStreamException {
+        List<YouTubeVideo> videos = new ArrayList<>();
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+
+        try {
+            boolean inEntry = false;
+            String videoId = null;
+            String channelId = null;
+            String title = null;
+            String description = null;
+            String publishedAt = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("entry".equals(name)) {
+                        inEntry = true;
+                        videoId = channelId = title = description = publishedAt = null;
+                    } else if (inEntry) {
+                        switch (name) {
+                            case "videoId" -> videoId = reader.getElementText().trim();
+                            case "channelId" -> channelId = reader.getElementText().trim();
+                            case "title" -> {
+                                if (title == null) {
+                                    title = reader.getElementText().trim();
+                                }
+                            }
+                            case "description" -> description = reader.getElementText().trim();
+                            case "published" -> publishedAt = reader.getElementText().trim();
+                            default -> { }
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "entry".equals(reader.getLocalName())) {
+                    inEntry = false;
+                    if (videoId != null && publishedAt != null) {
+                        videos.add(new YouTubeVideo(videoId, channelId, title != null ? title : "No Title",
+                            description != null ? description : "", publishedAt));
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return videos;
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,108 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import me.kmathers.twitchannouncer.database.DatabaseManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+public class YouTubeQuotaBudget {
+    public static final int CHANNELS_LIST_COST = 1;
+    public static final int PLAYLIST_ITEMS_LIST_COST = 1;
+    public static final int VIDEOS_LIST_COST = 1;
+
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long PACING_HORIZON = TimeUnit.HOURS.toMillis(1);
+
+    private final DatabaseManager database;
+    private final int dailyLimit;
+    private String day;
+    private int used;
+    private boolean dirty;
+
+    public YouTubeQuotaBudget(DatabaseManager database, int dailyLimit) {
+        this.database = database;
+        this.dailyLimit = dailyLimit;
+        this.day = currentDay();
+        this.used = database.loadYouTubeQuotaUsed(day);
+    }
+
+    public synchronized boolean tryCharge(int units) {
+        rollover();
+        if (used + units > dailyLimit) {
+            return false;
+        }
+        used += units;
+        dirty = true;
+        return true;
+    }
+
+    public synchronized void refund(int units) {
+        rollover();
+        used = Math.max(0, used - units);
+        dirty = true;
+    }
+
+    public synchronized void markExhausted() {
+        rollover();
+        used = dailyLimit;
+        dirty = true;
+    }
+
+    public synchronized int getPacedAllowance() {
+        rollover();
+        ZonedDateTime now = ZonedDateTime.now(QUOTA_ZONE);
+        long elapsed = Duration.between(now.toLocalDate().atStartOfDay(QUOTA_ZONE), now).toMillis();
+        double fraction = Math.min(1.0, (double) (elapsed + PACING_HORIZON) / DAY_MILLIS);
+        int allowance = (int) (dailyLimit * fraction) - used;
+        return Math.max(0, Math.min(allowance, dailyLimit - used));
+    }
+
+    public synchronized int getUsed() {
+        rollover();
+        return used;
+    }
+
+    public synchronized int getRemaining() {
+        rollover();
+        return dailyLimit - used;
+    }
+
+    public static boolean isQuotaExceeded(int code, String body) {
+        return code == 403 && body != null && (body.contains("quotaExceeded") || body.contains("dailyLimitExceeded"));
+    }
+
+    public int getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public void flush() {
+        String flushDay;
+        int flushUsed;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            flushDay = day;
+            flushUsed = used;
+            dirty = false;
+        }
+        database.saveYouTubeQuotaUsed(flushDay, flushUsed);
+    }
+
+    private void rollover() {
+        String today = currentDay();
+        if (!today.equals(day)) {
+            day = today;
+            used = 0;
+            dirty = true;
+        }
+    }
+
+    private static String currentDay() {
+        return LocalDate.now(QUOTA_ZONE).toString();
+    }
+}
@@ -0,0 +1,23 @@
+package me.kmathers.twitchannouncer.youtube;
+
+public class YouTubeVideo {
+    private final String id;
+    private final String channelId;
+    private final String title;
+    private final String description;
+    private final String publishedAt;
+
+    public YouTubeVideo(String id, String channelId, String title, String description, String publishedAt) {
+        this.id = id;
+        this.channelId = channelId;
+        this.title = title;
+        this.description = description;
+        this.publishedAt = publishedAt;
+    }
+
+    public String getId() { return id; }
+    public String getChannelId() { return channelId; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getPublishedAt() { return publishedAt; }
+}
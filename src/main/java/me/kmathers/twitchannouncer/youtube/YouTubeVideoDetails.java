@@ -0,0 +1,86 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+public class YouTubeVideoDetails {
+    public static final String BROADCAST_NONE = "none";
+    public static final String BROADCAST_UPCOMING = "upcoming";
+    public static final String BROADCAST_LIVE = "live";
+
+    private final String id;
+    private final String title;
+    private final String description;
+    private final String liveBroadcastContent;
+    private final String duration;
+    private final String scheduledStartTime;
+    private final String actualStartTime;
+    private final String actualEndTime;
+    private final int concurrentViewers;
+
+    public YouTubeVideoDetails(String id, String title, String description, String liveBroadcastContent, String duration,
+                               String scheduledStartTime, String actualStartTime, String actualEndTime, int concurrentViewers) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.liveBroadcastContent = liveBroadcastContent;
+        this.duration = duration;
+        this.scheduledStartTime = scheduledStartTime;
+        this.actualStartTime = actualStartTime;
+        this.actualEndTime = actualEndTime;
+        this.concurrentViewers = concurrentViewers;
+    }
+
+    public static YouTubeVideoDetails fromJson(JsonObject video) {
+        JsonObject snippet = video.has("snippet") ? video.getAsJsonObject("snippet") : new JsonObject();
+        JsonObject contentDetails = video.has("contentDetails") ? video.getAsJsonObject("contentDetails") : new JsonObject();
+        JsonObject live = video.has("liveStreamingDetails") ? video.getAsJsonObject("liveStreamingDetails") : new JsonObject();
+        String viewers = getString(live, "concurrentViewers", null);
+
+        return new YouTubeVideoDetails(
+            video.get("id").getAsString(),
+            getString(snippet, "title", null),
+            getString(snippet, "description", null),
+            getString(snippet, "liveBroadcastContent", BROADCAST_NONE),
+            getString(contentDetails, "duration", null),
+            getString(live, "scheduledStartTime", null),
+            getString(live, "actualStartTime", null),
+            getString(live, "actualEndTime", null),
+            viewers != null ? Integer.parseInt(viewers) : 0
+        );
+    }
+
+    private static String getString(JsonObject json, String key, String fallback) {
+        JsonElement element = json.get(key);
+        if (element == null || element.isJsonNull()) {
+            return fallback;
+        }
+        return element.getAsString();
+    }
+
+    public boolean isUpcoming() {
+        return BROADCAST_UPCOMING.equals(liveBroadcastContent);
+    }
+
+    public boolean isLive() {
+        return BROADCAST_LIVE.equals(liveBroadcastContent);
+    }
+
+    public boolean isBroadcast() {
+        return scheduledStartTime != null || actualStartTime != null;
+    }
+
+    public boolean isPremiere() {
+        return isBroadcast() && duration != null && !"P0D".equals(duration);
+    }
+
+    public String getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getLiveBroadcastContent() { return liveBroadcastContent; }
+    public String getDuration() { return duration; }
+    public String getScheduledStartTime() { return scheduledStartTime; }
+    public String getActualStartTime() { return actualStartTime; }
+    public String getActualEndTime() { return actualEndTime; }
+    public int getConcurrentViewers() { return concurrentViewers; }
+}
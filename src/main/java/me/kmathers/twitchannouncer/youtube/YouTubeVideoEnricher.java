@@ -0,0 +1,92 @@
+package me.kmathers.twitchannouncer.youtube;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.kmathers.twitchannouncer.config.Config;
+import me.kmathers.twitchannouncer.http.CircuitOpenException;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class YouTubeVideoEnricher {
+    private static final Logger logger = LoggerFactory.getLogger(YouTubeVideoEnricher.class);
+    public static final int MAX_IDS_PER_REQUEST = 50;
+    private static final String FIELDS = "items(id,snippet(title,description,liveBroadcastContent),contentDetails(duration),"
+        + "liveStreamingDetails(scheduledStartTime,actualStartTime,actualEndTime,concurrentViewers))";
+
+    private final OkHttpClient httpClient;
+    private final Config.YouTubeConfig youtube;
+    private final YouTubeQuotaBudget quotaBudget;
+
+    public YouTubeVideoEnricher(OkHttpClient httpClient, Config.YouTubeConfig youtube, YouTubeQuotaBudget quotaBudget) {
+        this.httpClient = httpClient;
+        this.youtube = youtube;
+        this.quotaBudget = quotaBudget;
+    }
+
+    public Map<String, YouTubeVideoDetails> fetchDetails(Collection<String> videoIds) {
+        Map<String, YouTubeVideoDetails> details = new HashMap<>();
+        List<String> ids = new ArrayList<>(videoIds);
+
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_REQUEST) {
+            List<String> batch = ids.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, ids.size()));
+            if (!quotaBudget.tryCharge(YouTubeQuotaBudget.VIDEOS_LIST_COST)) {
+                logger.warn("YouTube quota exhausted, skipping details for {} videos", ids.size() - i);
+                break;
+            }
+
+            try {
+                fetchBatch(batch, details);
+            } catch (CircuitOpenException e) {
+                quotaBudget.refund(YouTubeQuotaBudget.VIDEOS_LIST_COST);
+                break;
+            } catch (IOException e) {
+                logger.error("Failed to fetch YouTube video details: {}", e.getMessage());
+            }
+        }
+
+        return details;
+    }
+
+    private void fetchBatch(List<String> batch, Map<String, YouTubeVideoDetails> details) throws IOException {
+        HttpUrl url = HttpUrl.get("https://www.googleapis.com/youtube/v3/videos").newBuilder()
+            .addQueryParameter("part", "snippet,contentDetails,liveStreamingDetails")
+            .addQueryParameter("id", String.join(",", batch))
+            .addQueryParameter("maxResults", String.valueOf(MAX_IDS_PER_REQUEST))
+            .addQueryParameter("fields", FIELDS)
+            .addQueryParameter("key", youtube.getApiKey())
+            .build();
+
+        try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            if (!response.isSuccessful()) {
+                String body = response.body().string();
+                if (YouTubeQuotaBudget.isQuotaExceeded(response.code(), body)) {
+                    quotaBudget.markExhausted();
+                }
+                throw new IOException(response.code() + " - " + body);
+            }
+
+            JsonObject json = JsonParser.parseString(response.body().string()).getAsJsonObject();
+            JsonArray items = json.getAsJsonArray("items");
+            if (items == null) {
+                return;
+            }
+
+            for (int i = 0; i < items.size(); i++) {
+                YouTubeVideoDetails video = YouTubeVideoDetails.fromJson(items.get(i).getAsJsonObject());
+                details.put(video.getId(), video);
+            }
+        }
+    }
+}